@@ -23,11 +23,12 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     // Database
     implementation("org.springframework.boot:spring-boot-starter-flyway")
     implementation("org.flywaydb:flyway-database-postgresql")
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.postgresql:postgresql")
 
     // JWT
     implementation("io.jsonwebtoken:jjwt-api:0.13.0")
@@ -49,11 +50,15 @@ dependencies {
     // Rate Limiting
     implementation("com.bucket4j:bucket4j_jdk17-core:8.16.1")
 
+    // Caching (version managed by Spring Boot)
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
     // Test
     implementation(platform("org.testcontainers:testcontainers-bom:1.21.4"))
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
+    testImplementation("org.awaitility:awaitility")
 
     testImplementation("org.testcontainers:junit-jupiter")
     testImplementation("org.testcontainers:postgresql")
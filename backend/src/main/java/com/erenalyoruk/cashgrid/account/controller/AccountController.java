@@ -54,6 +54,13 @@ public class AccountController {
         return ResponseEntity.ok(accountService.update(id, request));
     }
 
+    @PutMapping("/{id}/balance-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccountResponse> updateBalanceShards(
+            @PathVariable UUID id, @Valid @RequestBody UpdateBalanceShardsRequest request) {
+        return ResponseEntity.ok(accountService.updateBalanceShards(id, request));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deactivate(@PathVariable UUID id) {
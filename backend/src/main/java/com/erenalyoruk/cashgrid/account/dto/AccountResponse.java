@@ -5,13 +5,14 @@ import java.time.Instant;
 import java.util.UUID;
 import lombok.Builder;
 
-@Builder
+@Builder(toBuilder = true)
 public record AccountResponse(
         UUID id,
         String customerName,
         String iban,
         String currency,
         BigDecimal balance,
+        Integer balanceShards,
         Boolean isActive,
         Instant createdAt,
         Instant updatedAt) {}
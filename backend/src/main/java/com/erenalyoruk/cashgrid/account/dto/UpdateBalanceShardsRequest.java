@@ -0,0 +1,7 @@
+package com.erenalyoruk.cashgrid.account.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record UpdateBalanceShardsRequest(@NotNull @Min(0) @Max(64) Integer shardCount) {}
@@ -36,6 +36,10 @@ public class Account {
     @Builder.Default
     private BigDecimal balance = BigDecimal.ZERO;
 
+    @Column(name = "balance_shards", nullable = false)
+    @Builder.Default
+    private Integer balanceShards = 0;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -0,0 +1,6 @@
+package com.erenalyoruk.cashgrid.account.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record BalanceShard(UUID accountId, int shardNo, BigDecimal balance) {}
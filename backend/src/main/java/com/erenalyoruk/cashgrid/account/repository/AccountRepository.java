@@ -3,6 +3,8 @@ package com.erenalyoruk.cashgrid.account.repository;
 import com.erenalyoruk.cashgrid.account.model.Account;
 import com.erenalyoruk.cashgrid.account.model.Currency;
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
@@ -18,12 +20,17 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
 
     Optional<Account> findByIban(String iban);
 
+    List<Account> findByIbanIn(Collection<String> ibans);
+
     boolean existsByIban(String iban);
 
     Page<Account> findByIsActiveTrue(Pageable pageable);
 
     Page<Account> findByCurrencyAndIsActiveTrue(Currency currency, Pageable pageable);
 
+    @Query("SELECT a.balanceShards FROM Account a WHERE a.id = :id")
+    Optional<Integer> findBalanceShardsById(@Param("id") UUID id);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdForUpdate(@Param("id") UUID id);
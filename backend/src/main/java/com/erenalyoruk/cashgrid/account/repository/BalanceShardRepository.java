@@ -0,0 +1,122 @@
+package com.erenalyoruk.cashgrid.account.repository;
+
+import com.erenalyoruk.cashgrid.account.model.BalanceShard;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class BalanceShardRepository {
+
+    private static final String COLUMNS = "SELECT account_id, shard_no, balance ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Any shard no other transaction currently holds
+    public Optional<BalanceShard> lockAnyFree(UUID accountId) {
+        return jdbcTemplate
+                .query(
+                        COLUMNS
+                                + "FROM account_balance_shards WHERE account_id = ? "
+                                + "ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED",
+                        this::mapRow,
+                        accountId)
+                .stream()
+                .findFirst();
+    }
+
+    // A free shard that can cover the whole amount on its own
+    public Optional<BalanceShard> lockFreeWithFunds(UUID accountId, BigDecimal amount) {
+        return jdbcTemplate
+                .query(
+                        COLUMNS
+                                + "FROM account_balance_shards "
+                                + "WHERE account_id = ? AND balance >= ? "
+                                + "ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED",
+                        this::mapRow,
+                        accountId,
+                        amount)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<BalanceShard> lock(UUID accountId, int shardNo) {
+        return jdbcTemplate
+                .query(
+                        COLUMNS
+                                + "FROM account_balance_shards "
+                                + "WHERE account_id = ? AND shard_no = ? FOR UPDATE",
+                        this::mapRow,
+                        accountId,
+                        shardNo)
+                .stream()
+                .findFirst();
+    }
+
+    // Always in shard order, so callers locking every shard cannot deadlock each other
+    public List<BalanceShard> lockAll(UUID accountId) {
+        return jdbcTemplate.query(
+                COLUMNS
+                        + "FROM account_balance_shards WHERE account_id = ? "
+                        + "ORDER BY shard_no FOR UPDATE",
+                this::mapRow,
+                accountId);
+    }
+
+    public void add(UUID accountId, int shardNo, BigDecimal delta) {
+        jdbcTemplate.update(
+                "UPDATE account_balance_shards SET balance = balance + ?, updated_at = now() "
+                        + "WHERE account_id = ? AND shard_no = ?",
+                delta,
+                accountId,
+                shardNo);
+    }
+
+    public Map<UUID, BigDecimal> sumBalances(Collection<UUID> accountIds) {
+        Map<UUID, BigDecimal> sums = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return sums;
+        }
+
+        namedParameterJdbcTemplate.query(
+                "SELECT account_id, SUM(balance) AS total FROM account_balance_shards "
+                        + "WHERE account_id IN (:ids) GROUP BY account_id",
+                Map.of("ids", accountIds),
+                rs -> {
+                    sums.put(rs.getObject("account_id", UUID.class), rs.getBigDecimal("total"));
+                });
+        return sums;
+    }
+
+    public void replace(UUID accountId, List<BigDecimal> balances) {
+        jdbcTemplate.update("DELETE FROM account_balance_shards WHERE account_id = ?", accountId);
+
+        for (int i = 0; i < balances.size(); i++) {
+            jdbcTemplate.update(
+                    "INSERT INTO account_balance_shards (account_id, shard_no, balance) "
+                            + "VALUES (?, ?, ?)",
+                    accountId,
+                    i,
+                    balances.get(i));
+        }
+    }
+
+    private BalanceShard mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new BalanceShard(
+                rs.getObject("account_id", UUID.class),
+                rs.getInt("shard_no"),
+                rs.getBigDecimal("balance"));
+    }
+}
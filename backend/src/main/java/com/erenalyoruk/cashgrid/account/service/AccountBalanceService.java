@@ -0,0 +1,204 @@
+package com.erenalyoruk.cashgrid.account.service;
+
+import com.erenalyoruk.cashgrid.account.model.Account;
+import com.erenalyoruk.cashgrid.account.model.BalanceShard;
+import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
+import com.erenalyoruk.cashgrid.account.repository.BalanceShardRepository;
+import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class AccountBalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountBalanceService.class);
+
+    private final AccountRepository accountRepository;
+    private final BalanceShardRepository balanceShardRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Hot accounts take credits on any free shard instead of serializing on the account row
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BalanceLock lockForCredit(UUID accountId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BalanceLock lock = acquireForCredit(accountId);
+        recordLock(sample, "credit", lock);
+        return lock;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BalanceLock lockForDebit(UUID accountId, BigDecimal amount) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BalanceLock lock = acquireForDebit(accountId, amount);
+        recordLock(sample, "debit", lock);
+        return lock;
+    }
+
+    private BalanceLock acquireForCredit(UUID accountId) {
+        int shardCount = shardCount(accountId);
+        if (shardCount > 0) {
+            Optional<BalanceShard> shard = balanceShardRepository.lockAnyFree(accountId);
+            if (shard.isEmpty()) {
+                // Every shard is busy — queue behind a random one
+                shard =
+                        balanceShardRepository.lock(
+                                accountId, ThreadLocalRandom.current().nextInt(shardCount));
+            }
+            if (shard.isPresent()) {
+                return BalanceLock.ofShards(accountId, List.of(shard.get()));
+            }
+        }
+        return lockAccountRow(accountId);
+    }
+
+    private BalanceLock acquireForDebit(UUID accountId, BigDecimal amount) {
+        if (shardCount(accountId) > 0) {
+            Optional<BalanceShard> shard =
+                    balanceShardRepository.lockFreeWithFunds(accountId, amount);
+            if (shard.isPresent()) {
+                return BalanceLock.ofShards(accountId, List.of(shard.get()));
+            }
+
+            // Funds are spread out or the funded shards are busy — take all of them
+            List<BalanceShard> shards = balanceShardRepository.lockAll(accountId);
+            if (!shards.isEmpty()) {
+                return BalanceLock.ofShards(accountId, shards);
+            }
+        }
+        return lockAccountRow(accountId);
+    }
+
+    public void debit(BalanceLock lock, BigDecimal amount) {
+        if (!lock.isSharded()) {
+            Account account = lock.account();
+            account.setBalance(account.getBalance().subtract(amount));
+            accountRepository.save(account);
+            return;
+        }
+
+        BigDecimal remaining = amount;
+        for (BalanceShard shard : lock.shards()) {
+            BigDecimal take = remaining.min(shard.balance());
+            if (take.signum() > 0) {
+                balanceShardRepository.add(lock.getAccountId(), shard.shardNo(), take.negate());
+                remaining = remaining.subtract(take);
+            }
+            if (remaining.signum() == 0) {
+                return;
+            }
+        }
+        throw new IllegalStateException(
+                "Locked balance rows cannot cover " + amount + " on " + lock.getAccountId());
+    }
+
+    public void credit(BalanceLock lock, BigDecimal amount) {
+        if (!lock.isSharded()) {
+            Account account = lock.account();
+            account.setBalance(account.getBalance().add(amount));
+            accountRepository.save(account);
+            return;
+        }
+
+        balanceShardRepository.add(lock.getAccountId(), lock.shards().get(0).shardNo(), amount);
+    }
+
+    // Visible balance after this transaction's changes
+    public BigDecimal balanceOf(BalanceLock lock) {
+        if (!lock.isSharded()) {
+            return lock.account().getBalance();
+        }
+        return balanceShardRepository
+                .sumBalances(List.of(lock.getAccountId()))
+                .getOrDefault(lock.getAccountId(), BigDecimal.ZERO);
+    }
+
+    // Moves the whole balance into shardCount shards, or back onto the account row for 0
+    @Transactional
+    public Account reshard(UUID accountId, int shardCount) {
+        Account account =
+                accountRepository
+                        .findByIdForUpdate(accountId)
+                        .orElseThrow(
+                                () -> new ResourceNotFoundException("Account", "id", accountId));
+
+        BigDecimal total = account.getBalance();
+        for (BalanceShard shard : balanceShardRepository.lockAll(accountId)) {
+            total = total.add(shard.balance());
+        }
+
+        List<BigDecimal> balances = new ArrayList<>(shardCount);
+        if (shardCount > 0) {
+            BigDecimal perShard =
+                    total.divide(BigDecimal.valueOf(shardCount), 2, RoundingMode.DOWN);
+            balances.add(total.subtract(perShard.multiply(BigDecimal.valueOf(shardCount - 1))));
+            for (int i = 1; i < shardCount; i++) {
+                balances.add(perShard);
+            }
+            account.setBalance(BigDecimal.ZERO);
+        } else {
+            account.setBalance(total);
+        }
+
+        balanceShardRepository.replace(accountId, balances);
+        account.setBalanceShards(shardCount);
+        account = accountRepository.save(account);
+
+        log.info("Account {} balance split into {} shards", accountId, shardCount);
+
+        return account;
+    }
+
+    // Time spent waiting for balance rows, split by whether the account was sharded
+    private void recordLock(Timer.Sample sample, String side, BalanceLock lock) {
+        sample.stop(
+                Timer.builder("account.lock.acquisition")
+                        .description("Time to lock the balance rows of a transfer leg")
+                        .tag("side", side)
+                        .tag("sharded", String.valueOf(lock.isSharded()))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private int shardCount(UUID accountId) {
+        return accountRepository
+                .findBalanceShardsById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account", "id", accountId));
+    }
+
+    private BalanceLock lockAccountRow(UUID accountId) {
+        Account account =
+                accountRepository
+                        .findByIdForUpdate(accountId)
+                        .orElseThrow(
+                                () -> new ResourceNotFoundException("Account", "id", accountId));
+
+        if (account.getBalanceShards() > 0) {
+            // Became hot while we waited for the row. Resharding holds this row lock, so missing
+            // shard rows mean they were never written; the account row still counts towards the
+            // balance then, so the transfer uses it rather than an empty shard set.
+            List<BalanceShard> shards = balanceShardRepository.lockAll(accountId);
+            if (!shards.isEmpty()) {
+                return BalanceLock.ofShards(accountId, shards);
+            }
+            log.warn(
+                    "Account {} has {} shards but no shard rows",
+                    accountId,
+                    account.getBalanceShards());
+        }
+        return BalanceLock.ofAccount(account);
+    }
+}
@@ -5,10 +5,14 @@ import com.erenalyoruk.cashgrid.account.mapper.AccountMapper;
 import com.erenalyoruk.cashgrid.account.model.Account;
 import com.erenalyoruk.cashgrid.account.model.Currency;
 import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
+import com.erenalyoruk.cashgrid.account.repository.BalanceShardRepository;
 import com.erenalyoruk.cashgrid.common.dto.PageResponse;
 import com.erenalyoruk.cashgrid.common.exception.BusinessException;
 import com.erenalyoruk.cashgrid.common.exception.ConflictException;
 import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -27,6 +31,8 @@ public class AccountService {
     private static final Logger log = LoggerFactory.getLogger(AccountService.class);
 
     private final AccountRepository accountRepository;
+    private final BalanceShardRepository balanceShardRepository;
+    private final AccountBalanceService accountBalanceService;
     private final AccountMapper accountMapper;
 
     @Transactional
@@ -61,7 +67,7 @@ public class AccountService {
                         .findById(id)
                         .orElseThrow(() -> new ResourceNotFoundException("Account", "id", id));
 
-        return accountMapper.toResponse(account);
+        return toResponse(account);
     }
 
     @Transactional(readOnly = true)
@@ -71,7 +77,7 @@ public class AccountService {
                         .findByIban(iban.replaceAll("\\s", "").toUpperCase())
                         .orElseThrow(() -> new ResourceNotFoundException("Account", "iban", iban));
 
-        return accountMapper.toResponse(account);
+        return toResponse(account);
     }
 
     @Transactional(readOnly = true)
@@ -92,7 +98,7 @@ public class AccountService {
         }
 
         return PageResponse.<AccountResponse>builder()
-                .content(accountPage.getContent().stream().map(accountMapper::toResponse).toList())
+                .content(toResponses(accountPage.getContent()))
                 .page(accountPage.getNumber())
                 .size(accountPage.getSize())
                 .totalElements(accountPage.getTotalElements())
@@ -116,7 +122,7 @@ public class AccountService {
 
         log.info("Account updated: {}", account.getId());
 
-        return accountMapper.toResponse(account);
+        return toResponse(account);
     }
 
     @Transactional
@@ -144,4 +150,37 @@ public class AccountService {
 
         log.info("Account activated: {}", account.getId());
     }
+
+    @Transactional
+    public AccountResponse updateBalanceShards(UUID id, UpdateBalanceShardsRequest request) {
+        Account account = accountBalanceService.reshard(id, request.shardCount());
+        return toResponse(account);
+    }
+
+    private AccountResponse toResponse(Account account) {
+        return toResponses(List.of(account)).get(0);
+    }
+
+    // Hot accounts keep their balance in shard rows, so add those back in with one query
+    private List<AccountResponse> toResponses(List<Account> accounts) {
+        Map<UUID, BigDecimal> shardTotals =
+                balanceShardRepository.sumBalances(
+                        accounts.stream()
+                                .filter(a -> a.getBalanceShards() > 0)
+                                .map(Account::getId)
+                                .toList());
+
+        return accounts.stream()
+                .map(
+                        account -> {
+                            AccountResponse response = accountMapper.toResponse(account);
+                            BigDecimal shardTotal = shardTotals.get(account.getId());
+                            return shardTotal == null
+                                    ? response
+                                    : response.toBuilder()
+                                            .balance(response.balance().add(shardTotal))
+                                            .build();
+                        })
+                .toList();
+    }
 }
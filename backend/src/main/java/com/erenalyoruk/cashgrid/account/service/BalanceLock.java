@@ -0,0 +1,54 @@
+package com.erenalyoruk.cashgrid.account.service;
+
+import com.erenalyoruk.cashgrid.account.model.Account;
+import com.erenalyoruk.cashgrid.account.model.BalanceShard;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+// Balance rows held by the current transaction: either the account row itself or a subset of
+// its shards. Obtained from AccountBalanceService and only valid until the transaction ends.
+public final class BalanceLock {
+
+    private final UUID accountId;
+    private final Account account;
+    private final List<BalanceShard> shards;
+
+    private BalanceLock(UUID accountId, Account account, List<BalanceShard> shards) {
+        this.accountId = accountId;
+        this.account = account;
+        this.shards = shards;
+    }
+
+    static BalanceLock ofAccount(Account account) {
+        return new BalanceLock(account.getId(), account, List.of());
+    }
+
+    static BalanceLock ofShards(UUID accountId, List<BalanceShard> shards) {
+        return new BalanceLock(accountId, null, shards);
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public boolean isSharded() {
+        return account == null;
+    }
+
+    // Funds reachable through the locked rows
+    public BigDecimal available() {
+        if (account != null) {
+            return account.getBalance();
+        }
+        return shards.stream().map(BalanceShard::balance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    Account account() {
+        return account;
+    }
+
+    List<BalanceShard> shards() {
+        return shards;
+    }
+}
@@ -0,0 +1,201 @@
+package com.erenalyoruk.cashgrid.audit.archive;
+
+import com.erenalyoruk.cashgrid.audit.config.AuditArchiveProperties;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// The archived months in the archive directory, each kept open for lookups until it is rewritten
+@Component
+@RequiredArgsConstructor
+public class AuditArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchive.class);
+
+    private static final Pattern INDEX_FILE = Pattern.compile("audit-(\\d{4})-(\\d{2})\\.idx");
+
+    private final AuditArchiveProperties properties;
+
+    private final ConcurrentNavigableMap<YearMonth, Segment> segments =
+            new ConcurrentSkipListMap<>();
+
+    // The directory's modification time at the last scan, and when the next full scan is due
+    private volatile FileTime scannedModified;
+    private volatile long nextScanNanos;
+
+    @PostConstruct
+    public void init() throws IOException {
+        refresh(true);
+        log.info("Opened {} audit archive segments in {}", segments.size(), directory());
+    }
+
+    @PreDestroy
+    public void close() {
+        segments.values().forEach(segment -> closeQuietly(segment.reader()));
+        segments.clear();
+    }
+
+    public Path directory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    public boolean contains(YearMonth month) {
+        return segments.containsKey(month);
+    }
+
+    // Makes a newly written segment visible to lookups
+    public void open(YearMonth month) throws IOException {
+        Path indexFile = directory().resolve(AuditSegmentFormat.indexFile(month));
+        open(month, Files.getLastModifiedTime(indexFile));
+    }
+
+    // One page of archived matches, newest first, and how many matches there are in all
+    public record Matches(List<AuditLog> content, long total) {}
+
+    public Matches findByEntity(String entityType, UUID entityId, long offset, int limit) {
+        return find(
+                reader -> reader.entityBlocks(entityId),
+                auditLog ->
+                        auditLog.getEntityId().equals(entityId)
+                                && auditLog.getEntityType().equals(entityType),
+                offset,
+                limit);
+    }
+
+    public Matches findByCorrelationId(String correlationId, long offset, int limit) {
+        return find(
+                reader -> reader.correlationBlocks(correlationId),
+                auditLog -> correlationId.equals(auditLog.getCorrelationId()),
+                offset,
+                limit);
+    }
+
+    // Walks the months newest first. The index tells how many matches each block holds, so the
+    // total comes from the index alone and only the blocks the page falls in are inflated.
+    private Matches find(
+            Function<AuditSegmentReader, List<AuditSegmentReader.Block>> blocks,
+            Predicate<AuditLog> filter,
+            long offset,
+            int limit) {
+        refreshQuietly();
+        List<AuditLog> content = new ArrayList<>();
+        long total = 0;
+        long skip = offset;
+        for (Segment segment : segments.descendingMap().values()) {
+            for (AuditSegmentReader.Block block : blocks.apply(segment.reader())) {
+                total += block.records();
+                if (content.size() >= limit) {
+                    continue;
+                }
+                if (skip >= block.records()) {
+                    skip -= block.records();
+                    continue;
+                }
+                List<AuditLog> records = read(segment.reader(), block, filter);
+                int from = (int) Math.min(skip, records.size());
+                int to = Math.min(records.size(), from + limit - content.size());
+                content.addAll(records.subList(from, to));
+                skip = 0;
+            }
+        }
+        return new Matches(content, total);
+    }
+
+    private static List<AuditLog> read(
+            AuditSegmentReader reader, AuditSegmentReader.Block block, Predicate<AuditLog> filter) {
+        try {
+            return reader.read(block, filter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Other nodes archive into the same shared directory, so lookups rescan it when its
+    // modification time moves, and at least once per rescan interval in case a coarse or cached
+    // timestamp hid a change. Segments rewritten since they were opened are reopened.
+    private void refreshQuietly() {
+        try {
+            refresh(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void refresh(boolean force) throws IOException {
+        Path directory = directory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        FileTime modified = Files.getLastModifiedTime(directory);
+        if (force || !modified.equals(scannedModified) || System.nanoTime() - nextScanNanos >= 0) {
+            scan(directory, modified);
+        }
+    }
+
+    private synchronized void scan(Path directory, FileTime modified) throws IOException {
+        scannedModified = modified;
+        nextScanNanos =
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getRescanSeconds());
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.idx")) {
+            for (Path file : files) {
+                Matcher matcher = INDEX_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                YearMonth month =
+                        YearMonth.of(
+                                Integer.parseInt(matcher.group(1)),
+                                Integer.parseInt(matcher.group(2)));
+                FileTime indexModified = Files.getLastModifiedTime(file);
+                Segment current = segments.get(month);
+                if (current == null || !current.indexModified().equals(indexModified)) {
+                    open(month, indexModified);
+                }
+            }
+        }
+    }
+
+    private synchronized void open(YearMonth month, FileTime indexModified) throws IOException {
+        Path directory = directory();
+        AuditSegmentReader reader =
+                new AuditSegmentReader(
+                        directory.resolve(AuditSegmentFormat.dataFile(month)),
+                        directory.resolve(AuditSegmentFormat.indexFile(month)));
+        Segment previous = segments.put(month, new Segment(reader, indexModified));
+        if (previous != null) {
+            closeQuietly(previous.reader());
+        }
+    }
+
+    private void closeQuietly(AuditSegmentReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit archive segment", e);
+        }
+    }
+
+    private record Segment(AuditSegmentReader reader, FileTime indexModified) {}
+}
@@ -0,0 +1,127 @@
+package com.erenalyoruk.cashgrid.audit.archive;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+// On-disk layout of one archived month.
+//
+// audit-YYYY-MM.dat: deflated blocks, each [int compressed length][int raw length][int records]
+// followed by the compressed records, oldest first. Every record ends with its chain number,
+// chain sequence and hash, so archived entries can still be verified.
+//
+// audit-YYYY-MM.idx: [int magic][int version][int entity entries][int correlation entries],
+// then entity entries (long msb, long lsb, long block offset, int records) sorted by id, then
+// correlation entries (long hash, long block offset, int records) sorted by hash, each key's
+// entries in block order. A key has one entry per block it occurs in, with how many of the
+// block's records carry it, so lookups count matches and skip blocks without inflating them.
+final class AuditSegmentFormat {
+
+    static final int MAGIC = 0x41554458;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int BLOCK_HEADER_BYTES = 12;
+    static final int ENTITY_ENTRY_BYTES = 28;
+    static final int CORRELATION_ENTRY_BYTES = 20;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private AuditSegmentFormat() {}
+
+    static String dataFile(YearMonth month) {
+        return String.format("audit-%04d-%02d.dat", month.getYear(), month.getMonthValue());
+    }
+
+    static String indexFile(YearMonth month) {
+        return String.format("audit-%04d-%02d.idx", month.getYear(), month.getMonthValue());
+    }
+
+    // FNV-1a; the index only narrows the search, matches are compared on the decoded value
+    static long correlationHash(String correlationId) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < correlationId.length(); i++) {
+            hash ^= correlationId.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static void writeRecord(DataOutput out, AuditLog auditLog) throws IOException {
+        writeUuid(out, auditLog.getId());
+        out.writeUTF(auditLog.getEntityType());
+        writeUuid(out, auditLog.getEntityId());
+        out.writeUTF(auditLog.getAction().name());
+        writeUuid(out, auditLog.getPerformedBy());
+        writeNullable(out, auditLog.getCorrelationId());
+        writeNullable(out, auditLog.getDetails());
+        out.writeLong(auditLog.getCreatedAt().getEpochSecond());
+        out.writeInt(auditLog.getCreatedAt().getNano());
+        // Unchained entries have neither a position nor a hash
+        out.writeBoolean(auditLog.getChainNo() != null);
+        if (auditLog.getChainNo() != null) {
+            out.writeInt(auditLog.getChainNo());
+            out.writeLong(auditLog.getChainSeq());
+            out.writeInt(auditLog.getHash().length);
+            out.write(auditLog.getHash());
+        }
+    }
+
+    static AuditLog readRecord(DataInput in) throws IOException {
+        AuditLog auditLog =
+                AuditLog.builder()
+                        .id(readUuid(in))
+                        .entityType(in.readUTF())
+                        .entityId(readUuid(in))
+                        .action(AuditAction.valueOf(in.readUTF()))
+                        .performedBy(readUuid(in))
+                        .correlationId(readNullable(in))
+                        .details(readNullable(in))
+                        .createdAt(Instant.ofEpochSecond(in.readLong(), in.readInt()))
+                        .build();
+        if (in.readBoolean()) {
+            auditLog.setChainNo(in.readInt());
+            auditLog.setChainSeq(in.readLong());
+            byte[] hash = new byte[in.readInt()];
+            in.readFully(hash);
+            auditLog.setHash(hash);
+        }
+        return auditLog;
+    }
+
+    private static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    // Length-prefixed UTF-8, -1 for null; details can exceed writeUTF's 64 KB limit
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
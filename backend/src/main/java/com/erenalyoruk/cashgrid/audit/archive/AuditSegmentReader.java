@@ -0,0 +1,167 @@
+package com.erenalyoruk.cashgrid.audit.archive;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Read side of one segment. The index is memory-mapped and binary searched in place; only the
+// blocks a caller asks for are read and inflated.
+public class AuditSegmentReader implements AutoCloseable {
+
+    private final FileChannel data;
+    private final MappedByteBuffer index;
+    private final int entityEntries;
+    private final int correlationEntries;
+    private final int correlationStart;
+
+    public AuditSegmentReader(Path dataFile, Path indexFile) throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            this.index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+        }
+        if (index.getInt(0) != AuditSegmentFormat.MAGIC
+                || index.getInt(4) != AuditSegmentFormat.VERSION) {
+            throw new IOException("Not an audit segment index: " + indexFile);
+        }
+        this.entityEntries = index.getInt(8);
+        this.correlationEntries = index.getInt(12);
+        this.correlationStart =
+                AuditSegmentFormat.HEADER_BYTES
+                        + entityEntries * AuditSegmentFormat.ENTITY_ENTRY_BYTES;
+        this.data = FileChannel.open(dataFile, StandardOpenOption.READ);
+    }
+
+    // A block holding records for a key, and how many of its records carry the key
+    public record Block(long offset, int records) {}
+
+    // The entity's blocks, newest first
+    public List<Block> entityBlocks(UUID entityId) {
+        long msb = entityId.getMostSignificantBits();
+        long lsb = entityId.getLeastSignificantBits();
+
+        // Lower bound of (msb, lsb)
+        int low = 0;
+        int high = entityEntries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int at = entityAt(mid);
+            int cmp = Long.compare(index.getLong(at), msb);
+            if (cmp == 0) {
+                cmp = Long.compare(index.getLong(at + 8), lsb);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        for (int i = low; i < entityEntries; i++) {
+            int at = entityAt(i);
+            if (index.getLong(at) != msb || index.getLong(at + 8) != lsb) {
+                break;
+            }
+            blocks.add(new Block(index.getLong(at + 16), index.getInt(at + 24)));
+        }
+        Collections.reverse(blocks);
+        return blocks;
+    }
+
+    // The blocks holding the correlation id's hash, newest first
+    public List<Block> correlationBlocks(String correlationId) {
+        long hash = AuditSegmentFormat.correlationHash(correlationId);
+
+        int low = 0;
+        int high = correlationEntries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index.getLong(correlationAt(mid)) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        for (int i = low; i < correlationEntries; i++) {
+            int at = correlationAt(i);
+            if (index.getLong(at) != hash) {
+                break;
+            }
+            blocks.add(new Block(index.getLong(at + 8), index.getInt(at + 16)));
+        }
+        Collections.reverse(blocks);
+        return blocks;
+    }
+
+    // Inflates one block and returns its records that pass filter, newest first
+    public List<AuditLog> read(Block block, Predicate<AuditLog> filter) throws IOException {
+        long offset = block.offset();
+        ByteBuffer header = ByteBuffer.allocate(AuditSegmentFormat.BLOCK_HEADER_BYTES);
+        readFully(header, offset);
+        int compressedLength = header.getInt(0);
+        int rawLength = header.getInt(4);
+        int records = header.getInt(8);
+
+        ByteBuffer compressed = ByteBuffer.allocate(compressedLength);
+        readFully(compressed, offset + AuditSegmentFormat.BLOCK_HEADER_BYTES);
+
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array());
+            if (inflater.inflate(raw) != rawLength) {
+                throw new IOException("Truncated audit segment block at " + offset);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt audit segment block at " + offset, e);
+        } finally {
+            inflater.end();
+        }
+
+        List<AuditLog> matches = new ArrayList<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        for (int i = 0; i < records; i++) {
+            AuditLog log = AuditSegmentFormat.readRecord(in);
+            if (filter.test(log)) {
+                matches.add(log);
+            }
+        }
+        Collections.reverse(matches);
+        return matches;
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+
+    private int entityAt(int i) {
+        return AuditSegmentFormat.HEADER_BYTES + i * AuditSegmentFormat.ENTITY_ENTRY_BYTES;
+    }
+
+    private int correlationAt(int i) {
+        return correlationStart + i * AuditSegmentFormat.CORRELATION_ENTRY_BYTES;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of audit segment");
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.erenalyoruk.cashgrid.audit.archive;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+// Writes one month's rows, in created_at order, as a new segment. Both files are written under
+// temporary names and renamed into place on finish(), index last, so readers only ever see
+// complete segments. Index entries are sorted through run files rather than kept in memory.
+public class AuditSegmentWriter implements AutoCloseable {
+
+    private static final Comparator<EntityEntry> ENTITY_ORDER =
+            Comparator.comparingLong(EntityEntry::msb)
+                    .thenComparingLong(EntityEntry::lsb)
+                    .thenComparingLong(EntityEntry::offset);
+
+    private static final Comparator<CorrelationEntry> CORRELATION_ORDER =
+            Comparator.comparingLong(CorrelationEntry::hash)
+                    .thenComparingLong(CorrelationEntry::offset);
+
+    private static final SortedRuns.Codec<EntityEntry> ENTITY_CODEC =
+            new SortedRuns.Codec<>() {
+                @Override
+                public void write(DataOutput out, EntityEntry entry) throws IOException {
+                    out.writeLong(entry.msb());
+                    out.writeLong(entry.lsb());
+                    out.writeLong(entry.offset());
+                    out.writeInt(entry.records());
+                }
+
+                @Override
+                public EntityEntry read(DataInput in) throws IOException {
+                    return new EntityEntry(
+                            in.readLong(), in.readLong(), in.readLong(), in.readInt());
+                }
+            };
+
+    private static final SortedRuns.Codec<CorrelationEntry> CORRELATION_CODEC =
+            new SortedRuns.Codec<>() {
+                @Override
+                public void write(DataOutput out, CorrelationEntry entry) throws IOException {
+                    out.writeLong(entry.hash());
+                    out.writeLong(entry.offset());
+                    out.writeInt(entry.records());
+                }
+
+                @Override
+                public CorrelationEntry read(DataInput in) throws IOException {
+                    return new CorrelationEntry(in.readLong(), in.readLong(), in.readInt());
+                }
+            };
+
+    private final Path directory;
+    private final YearMonth month;
+    private final int blockRecords;
+    private final Path dataTemp;
+    private final Path indexTemp;
+    private final DataOutputStream data;
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private final DataOutputStream blockOut = new DataOutputStream(block);
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final SortedRuns<EntityEntry> entityEntries;
+    private final SortedRuns<CorrelationEntry> correlationEntries;
+    // Records per key in the current block, indexed once the block is flushed
+    private final Map<UUID, Integer> blockEntities = new HashMap<>();
+    private final Map<Long, Integer> blockCorrelations = new HashMap<>();
+
+    private long offset;
+    private int recordsInBlock;
+    private long records;
+
+    public AuditSegmentWriter(Path directory, YearMonth month, int blockRecords, int runEntries)
+            throws IOException {
+        this.directory = directory;
+        this.month = month;
+        this.blockRecords = blockRecords;
+        Files.createDirectories(directory);
+        this.dataTemp = directory.resolve(AuditSegmentFormat.dataFile(month) + ".tmp");
+        this.indexTemp = directory.resolve(AuditSegmentFormat.indexFile(month) + ".tmp");
+        this.data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataTemp)));
+        String indexName = AuditSegmentFormat.indexFile(month);
+        this.entityEntries =
+                new SortedRuns<>(
+                        directory, indexName + ".entity", ENTITY_ORDER, ENTITY_CODEC, runEntries);
+        this.correlationEntries =
+                new SortedRuns<>(
+                        directory,
+                        indexName + ".correlation",
+                        CORRELATION_ORDER,
+                        CORRELATION_CODEC,
+                        runEntries);
+    }
+
+    public void append(AuditLog auditLog) throws IOException {
+        AuditSegmentFormat.writeRecord(blockOut, auditLog);
+        blockEntities.merge(auditLog.getEntityId(), 1, Integer::sum);
+        if (auditLog.getCorrelationId() != null) {
+            blockCorrelations.merge(
+                    AuditSegmentFormat.correlationHash(auditLog.getCorrelationId()),
+                    1,
+                    Integer::sum);
+        }
+
+        records++;
+        if (++recordsInBlock == blockRecords) {
+            flushBlock();
+        }
+    }
+
+    public long records() {
+        return records;
+    }
+
+    public void finish() throws IOException {
+        flushBlock();
+        data.close();
+        force(dataTemp);
+        writeIndex();
+
+        Files.move(
+                dataTemp,
+                directory.resolve(AuditSegmentFormat.dataFile(month)),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        Files.move(
+                indexTemp,
+                directory.resolve(AuditSegmentFormat.indexFile(month)),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        data.close();
+        entityEntries.close();
+        correlationEntries.close();
+        Files.deleteIfExists(dataTemp);
+        Files.deleteIfExists(indexTemp);
+    }
+
+    private void flushBlock() throws IOException {
+        if (recordsInBlock == 0) {
+            return;
+        }
+
+        byte[] raw = block.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+
+        data.writeInt(compressed.size());
+        data.writeInt(raw.length);
+        data.writeInt(recordsInBlock);
+        compressed.writeTo(data);
+
+        for (Map.Entry<UUID, Integer> entity : blockEntities.entrySet()) {
+            entityEntries.add(
+                    new EntityEntry(
+                            entity.getKey().getMostSignificantBits(),
+                            entity.getKey().getLeastSignificantBits(),
+                            offset,
+                            entity.getValue()));
+        }
+        for (Map.Entry<Long, Integer> correlation : blockCorrelations.entrySet()) {
+            correlationEntries.add(
+                    new CorrelationEntry(correlation.getKey(), offset, correlation.getValue()));
+        }
+        blockEntities.clear();
+        blockCorrelations.clear();
+
+        offset += AuditSegmentFormat.BLOCK_HEADER_BYTES + compressed.size();
+        block.reset();
+        recordsInBlock = 0;
+    }
+
+    private void writeIndex() throws IOException {
+        long entities;
+        long correlations;
+        try (OutputStream file = Files.newOutputStream(indexTemp);
+                DataOutputStream index = new DataOutputStream(new BufferedOutputStream(file))) {
+            index.writeInt(AuditSegmentFormat.MAGIC);
+            index.writeInt(AuditSegmentFormat.VERSION);
+            // Entry counts are filled in once the merges have counted them
+            index.writeInt(0);
+            index.writeInt(0);
+            entities = entityEntries.merge(entry -> ENTITY_CODEC.write(index, entry));
+            correlations =
+                    correlationEntries.merge(entry -> CORRELATION_CODEC.write(index, entry));
+        }
+
+        try (FileChannel channel = FileChannel.open(indexTemp, StandardOpenOption.WRITE)) {
+            ByteBuffer counts =
+                    ByteBuffer.allocate(8)
+                            .putInt(Math.toIntExact(entities))
+                            .putInt(Math.toIntExact(correlations))
+                            .flip();
+            while (counts.hasRemaining()) {
+                channel.write(counts, 8 + counts.position());
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void force(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private record EntityEntry(long msb, long lsb, long offset, int records) {}
+
+    private record CorrelationEntry(long hash, long offset, int records) {}
+}
@@ -0,0 +1,133 @@
+package com.erenalyoruk.cashgrid.audit.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// External sort for index entries. Entries are buffered runEntries at a time, sorted and spilled
+// to a temporary run file; merge() streams the runs back in order without duplicates, so memory
+// stays at one buffer however large the month is.
+final class SortedRuns<E> implements AutoCloseable {
+
+    interface Codec<E> {
+        void write(DataOutput out, E entry) throws IOException;
+
+        E read(DataInput in) throws IOException;
+    }
+
+    interface Sink<E> {
+        void accept(E entry) throws IOException;
+    }
+
+    private record Head<E>(E entry, int run) {}
+
+    private final Path directory;
+    private final String name;
+    private final Comparator<E> order;
+    private final Codec<E> codec;
+    private final int runEntries;
+    private final List<E> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Long> runSizes = new ArrayList<>();
+
+    SortedRuns(Path directory, String name, Comparator<E> order, Codec<E> codec, int runEntries) {
+        this.directory = directory;
+        this.name = name;
+        this.order = order;
+        this.codec = codec;
+        this.runEntries = runEntries;
+    }
+
+    void add(E entry) throws IOException {
+        buffer.add(entry);
+        if (buffer.size() == runEntries) {
+            spill();
+        }
+    }
+
+    // Feeds the distinct entries to sink in order and returns how many there were
+    long merge(Sink<E> sink) throws IOException {
+        spill();
+
+        List<DataInputStream> inputs = new ArrayList<>(runs.size());
+        try {
+            long[] remaining = new long[runs.size()];
+            PriorityQueue<Head<E>> heads =
+                    new PriorityQueue<>((a, b) -> order.compare(a.entry(), b.entry()));
+            for (int i = 0; i < runs.size(); i++) {
+                inputs.add(
+                        new DataInputStream(
+                                new BufferedInputStream(Files.newInputStream(runs.get(i)))));
+                remaining[i] = runSizes.get(i);
+                advance(heads, inputs, remaining, i);
+            }
+
+            long count = 0;
+            E previous = null;
+            while (!heads.isEmpty()) {
+                Head<E> head = heads.poll();
+                if (!head.entry().equals(previous)) {
+                    sink.accept(head.entry());
+                    previous = head.entry();
+                    count++;
+                }
+                advance(heads, inputs, remaining, head.run());
+            }
+            return count;
+        } finally {
+            for (DataInputStream input : inputs) {
+                input.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private void advance(
+            PriorityQueue<Head<E>> heads, List<DataInputStream> inputs, long[] remaining, int run)
+            throws IOException {
+        if (remaining[run] > 0) {
+            remaining[run]--;
+            heads.add(new Head<>(codec.read(inputs.get(run)), run));
+        }
+    }
+
+    private void spill() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        buffer.sort(order);
+        Path run = directory.resolve(name + "." + runs.size() + ".run");
+        runs.add(run);
+        long written = 0;
+        try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+            E previous = null;
+            for (E entry : buffer) {
+                if (!entry.equals(previous)) {
+                    codec.write(out, entry);
+                    previous = entry;
+                    written++;
+                }
+            }
+        }
+        runSizes.add(written);
+        buffer.clear();
+    }
+}
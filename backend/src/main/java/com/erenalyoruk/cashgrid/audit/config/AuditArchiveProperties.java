@@ -0,0 +1,23 @@
+package com.erenalyoruk.cashgrid.audit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.audit.archive")
+@Getter
+@Setter
+public class AuditArchiveProperties {
+
+    private boolean enabled = false;
+    private String directory = "data/audit-archive";
+    // Monthly partitions that ended more than this many months ago move into segment files
+    private int afterMonths = 12;
+    private int blockRecords = 256;
+    // Lookups rescan the directory when it changes, and at least this often
+    private int rescanSeconds = 60;
+    // Index entries sorted in memory before they are spilled to a run file
+    private int indexRunEntries = 262_144;
+}
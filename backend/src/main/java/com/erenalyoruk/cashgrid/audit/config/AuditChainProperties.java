@@ -0,0 +1,20 @@
+package com.erenalyoruk.cashgrid.audit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.audit.chain")
+@Getter
+@Setter
+public class AuditChainProperties {
+
+    // Entries are spread over this many chains by entity id
+    private int chains = 16;
+    // Links checked by one verification task
+    private int verifySegmentSize = 10_000;
+    // Verification tasks run at once, each holding a database connection
+    private int verifyParallelism = 4;
+}
@@ -0,0 +1,24 @@
+package com.erenalyoruk.cashgrid.audit.config;
+
+import com.erenalyoruk.cashgrid.audit.model.RetentionAction;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.audit.partitions")
+@Getter
+@Setter
+public class AuditPartitionProperties {
+
+    private boolean enabled = true;
+    private long checkIntervalMs = 3_600_000;
+    // Monthly partitions kept ready beyond the current month
+    private int monthsAhead = 3;
+    // Partitions whose month ended more than this many months ago leave audit_logs; 0 keeps all
+    private int retentionMonths = 0;
+    private RetentionAction retentionAction = RetentionAction.DETACH;
+    // How long a maintenance statement waits for a lock on audit_logs before giving up
+    private long lockTimeoutMs = 5_000;
+}
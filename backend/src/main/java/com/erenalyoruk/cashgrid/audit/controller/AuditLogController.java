@@ -1,29 +1,59 @@
 package com.erenalyoruk.cashgrid.audit.controller;
 
+import com.erenalyoruk.cashgrid.audit.dto.AuditChainVerificationResponse;
 import com.erenalyoruk.cashgrid.audit.dto.AuditLogResponse;
 import com.erenalyoruk.cashgrid.audit.mapper.AuditLogMapper;
 import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditExportFormat;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import com.erenalyoruk.cashgrid.audit.repository.AuditLogFilter;
 import com.erenalyoruk.cashgrid.audit.repository.AuditLogRepository;
+import com.erenalyoruk.cashgrid.audit.service.AuditArchiveService;
+import com.erenalyoruk.cashgrid.audit.service.AuditChainVerifier;
+import com.erenalyoruk.cashgrid.audit.service.AuditExportService;
+import com.erenalyoruk.cashgrid.common.dto.PageCursor;
 import com.erenalyoruk.cashgrid.common.dto.PageResponse;
+import com.erenalyoruk.cashgrid.common.exception.BusinessException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/audit-logs")
 @RequiredArgsConstructor
 public class AuditLogController {
 
+    private static final String DETAILS_PREFIX = "details.";
+    private static final Pattern DETAILS_PATH = Pattern.compile("\\w+(\\.\\w+)*");
+    private static final int MAX_DETAILS_FILTERS = 5;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
+    private final AuditArchiveService auditArchiveService;
+    private final AuditChainVerifier auditChainVerifier;
+    private final AuditExportService auditExportService;
 
     @GetMapping("/entity/{entityType}/{entityId}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -34,21 +64,9 @@ public class AuditLogController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        var auditPage =
-                auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId, pageable);
+        var auditPage = auditArchiveService.findByEntity(entityType, entityId, pageable);
 
-        return ResponseEntity.ok(
-                PageResponse.<AuditLogResponse>builder()
-                        .content(
-                                auditPage.getContent().stream()
-                                        .map(auditLogMapper::toResponse)
-                                        .toList())
-                        .page(auditPage.getNumber())
-                        .size(auditPage.getSize())
-                        .totalElements(auditPage.getTotalElements())
-                        .totalPages(auditPage.getTotalPages())
-                        .last(auditPage.isLast())
-                        .build());
+        return ResponseEntity.ok(toPageResponse(auditPage).build());
     }
 
     @GetMapping("/user/{userId}")
@@ -83,27 +101,38 @@ public class AuditLogController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        var auditPage = auditLogRepository.findByCorrelationId(correlationId, pageable);
+        var auditPage = auditArchiveService.findByCorrelationId(correlationId, pageable);
 
-        return ResponseEntity.ok(
-                PageResponse.<AuditLogResponse>builder()
-                        .content(
-                                auditPage.getContent().stream()
-                                        .map(auditLogMapper::toResponse)
-                                        .toList())
-                        .page(auditPage.getNumber())
-                        .size(auditPage.getSize())
-                        .totalElements(auditPage.getTotalElements())
-                        .totalPages(auditPage.getTotalPages())
-                        .last(auditPage.isLast())
-                        .build());
+        return ResponseEntity.ok(toPageResponse(auditPage).build());
+    }
+
+    @Operation(
+            summary = "Verify the audit hash chains",
+            description =
+                    "Recomputes every chained entry's hash and reports the first broken link of"
+                            + " each chain. from and to limit the check to entries created in"
+                            + " [from, to), e.g. one month.")
+    @GetMapping("/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditChainVerificationResponse> verify(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BusinessException("INVALID_RANGE", "from must be before to");
+        }
+        return ResponseEntity.ok(auditChainVerifier.verify(from, to));
     }
 
     @Operation(
             summary = "Search audit logs",
             description =
                     "Search audit logs with optional filters: action, performedBy, from, to,"
-                            + " correlationId, entityType")
+                            + " correlationId, entityType. Fields inside details are matched with"
+                            + " details.<path>=<value>, e.g. details.sourceIban=TR..., and can be"
+                            + " repeated for different paths. Pages are fetched by keyset without"
+                            + " a COUNT unless withTotal is set: follow nextCursor, as page only"
+                            + " applies with withTotal. estimateTotal adds the planner's row"
+                            + " estimate instead.")
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PageResponse<AuditLogResponse>> search(
@@ -125,15 +154,94 @@ public class AuditLogController {
             @Parameter(in = ParameterIn.QUERY, description = "Entity type (e.g. PAYMENT)")
                     @RequestParam(required = false)
                     String entityType,
-            @Parameter(in = ParameterIn.QUERY, description = "Page number")
+            @Parameter(in = ParameterIn.QUERY, description = "Page number, with withTotal only")
                     @RequestParam(defaultValue = "0")
                     int page,
             @Parameter(in = ParameterIn.QUERY, description = "Page size")
                     @RequestParam(defaultValue = "20")
-                    int size) {
+                    int size,
+            @Parameter(in = ParameterIn.QUERY, description = "Cursor from the previous page")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(in = ParameterIn.QUERY, description = "Run an exact COUNT")
+                    @RequestParam(defaultValue = "false")
+                    boolean withTotal,
+            @Parameter(in = ParameterIn.QUERY, description = "Include an estimated total")
+                    @RequestParam(defaultValue = "false")
+                    boolean estimateTotal,
+            @Parameter(hidden = true) @RequestParam Map<String, String> params) {
+
+        AuditLogFilter filter =
+                filter(action, performedBy, from, to, correlationId, entityType, params);
+
+        if (withTotal && cursor == null) {
+            Page<AuditLog> auditPage =
+                    auditLogRepository.search(filter, PageRequest.of(page, size));
+            return ResponseEntity.ok(toPageResponse(auditPage).build());
+        }
+
+        // Keyset pages are reached through nextCursor; an offset would rescan every skipped row
+        if (page > 0) {
+            throw new BusinessException(
+                    "INVALID_PAGE", "Pass the previous page's nextCursor instead of a page number");
+        }
+
+        PageCursor after = PageCursor.decode(cursor);
+        Slice<AuditLog> slice =
+                auditLogRepository.searchAfter(
+                        filter, after.createdAt(), after.id(), PageRequest.of(0, size));
+
+        PageResponse.PageResponseBuilder<AuditLogResponse> response = toPageResponse(slice);
+        if (slice.hasNext()) {
+            AuditLog lastLog = slice.getContent().get(slice.getNumberOfElements() - 1);
+            response.nextCursor(new PageCursor(lastLog.getCreatedAt(), lastLog.getId()).encode());
+        }
+        if (estimateTotal) {
+            response.estimatedTotal(auditLogRepository.estimateCount(filter));
+        }
+        return ResponseEntity.ok(response.build());
+    }
+
+    @Operation(
+            summary = "Export audit logs",
+            description =
+                    "Streams every audit log matching the search filters, newest first, as"
+                            + " NDJSON or CSV.")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) UUID performedBy,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String correlationId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "NDJSON") AuditExportFormat format,
+            @Parameter(hidden = true) @RequestParam Map<String, String> params) {
+
+        AuditLogFilter filter =
+                filter(action, performedBy, from, to, correlationId, entityType, params);
+        boolean csv = format == AuditExportFormat.CSV;
 
-        java.time.Instant fromInst = from;
-        java.time.Instant toInst = to;
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename(csv ? "audit-logs.csv" : "audit-logs.ndjson")
+                                .build()
+                                .toString())
+                .body(out -> auditExportService.export(filter, format, out));
+    }
+
+    private static AuditLogFilter filter(
+            String action,
+            UUID performedBy,
+            Instant from,
+            Instant to,
+            String correlationId,
+            String entityType,
+            Map<String, String> params) {
         AuditAction audAction = null;
         if (action != null && !action.isBlank()) {
             try {
@@ -142,29 +250,57 @@ public class AuditLogController {
                 audAction = null;
             }
         }
+        return new AuditLogFilter(
+                audAction,
+                performedBy,
+                from,
+                to,
+                correlationId,
+                entityType,
+                detailsFilters(params));
+    }
 
-        Pageable pageable = PageRequest.of(page, size);
-        var auditPage =
-                auditLogRepository.search(
-                        audAction,
-                        performedBy,
-                        fromInst,
-                        toInst,
-                        correlationId,
-                        entityType,
-                        pageable);
+    // details.<path> parameters, keyed by the path below details
+    private static Map<String, String> detailsFilters(Map<String, String> params) {
+        Map<String, String> details = new LinkedHashMap<>();
+        params.forEach(
+                (name, value) -> {
+                    if (!name.startsWith(DETAILS_PREFIX)) {
+                        return;
+                    }
+                    String path = name.substring(DETAILS_PREFIX.length());
+                    if (!DETAILS_PATH.matcher(path).matches()) {
+                        throw new BusinessException(
+                                "INVALID_FILTER", "Invalid details filter: " + name);
+                    }
+                    details.put(path, value);
+                });
+        if (details.size() > MAX_DETAILS_FILTERS) {
+            throw new BusinessException(
+                    "INVALID_FILTER",
+                    String.format(
+                            "At most %d details filters are allowed", MAX_DETAILS_FILTERS));
+        }
+        return details;
+    }
 
-        return ResponseEntity.ok(
+    // Totals only when the slice came from a counted Page query
+    private PageResponse.PageResponseBuilder<AuditLogResponse> toPageResponse(
+            Slice<AuditLog> slice) {
+        PageResponse.PageResponseBuilder<AuditLogResponse> response =
                 PageResponse.<AuditLogResponse>builder()
                         .content(
-                                auditPage.getContent().stream()
+                                slice.getContent().stream()
                                         .map(auditLogMapper::toResponse)
                                         .toList())
-                        .page(auditPage.getNumber())
-                        .size(auditPage.getSize())
-                        .totalElements(auditPage.getTotalElements())
-                        .totalPages(auditPage.getTotalPages())
-                        .last(auditPage.isLast())
-                        .build());
+                        .page(slice.getNumber())
+                        .size(slice.getSize())
+                        .last(!slice.hasNext());
+
+        if (slice instanceof Page<AuditLog> auditPage) {
+            response.totalElements(auditPage.getTotalElements())
+                    .totalPages(auditPage.getTotalPages());
+        }
+        return response;
     }
 }
@@ -0,0 +1,13 @@
+package com.erenalyoruk.cashgrid.audit.dto;
+
+import java.util.UUID;
+
+// The first link of a chain that fails verification. auditLogId is null for a missing link.
+public record AuditChainBreak(int chainNo, long chainSeq, UUID auditLogId, String reason) {
+
+    public static final String MISSING_LINK = "MISSING_LINK";
+    public static final String DUPLICATE_LINK = "DUPLICATE_LINK";
+    public static final String HASH_MISMATCH = "HASH_MISMATCH";
+    public static final String UNEXPECTED_LINK = "UNEXPECTED_LINK";
+    public static final String HEAD_MISMATCH = "HEAD_MISMATCH";
+}
@@ -0,0 +1,12 @@
+package com.erenalyoruk.cashgrid.audit.dto;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record AuditChainVerificationResponse(
+        boolean valid,
+        int chains,
+        long linksChecked,
+        long durationMs,
+        List<AuditChainBreak> breaks) {}
@@ -0,0 +1,8 @@
+package com.erenalyoruk.cashgrid.audit.model;
+
+// Structured payload stored in audit_logs.details, one record type per kind of event
+public sealed interface AuditDetails
+        permits PaymentCreatedDetails,
+                PaymentRejectedDetails,
+                PaymentCompletedDetails,
+                PaymentFailedDetails {}
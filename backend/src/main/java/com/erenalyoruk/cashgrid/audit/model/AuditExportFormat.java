@@ -0,0 +1,7 @@
+package com.erenalyoruk.cashgrid.audit.model;
+
+public enum AuditExportFormat {
+    // One AuditLogResponse JSON object per line
+    NDJSON,
+    CSV
+}
@@ -44,4 +44,14 @@ public class AuditLog {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
+
+    // Position in the hash chain; null for entries written before chaining
+    @Column(name = "chain_no", updatable = false)
+    private Integer chainNo;
+
+    @Column(name = "chain_seq", updatable = false)
+    private Long chainSeq;
+
+    @Column(updatable = false)
+    private byte[] hash;
 }
@@ -0,0 +1,6 @@
+package com.erenalyoruk.cashgrid.audit.model;
+
+import java.math.BigDecimal;
+
+public record PaymentCompletedDetails(BigDecimal sourceBalance, BigDecimal targetBalance)
+        implements AuditDetails {}
@@ -0,0 +1,6 @@
+package com.erenalyoruk.cashgrid.audit.model;
+
+import java.math.BigDecimal;
+
+public record PaymentCreatedDetails(BigDecimal amount, String sourceIban, String targetIban)
+        implements AuditDetails {}
@@ -0,0 +1,3 @@
+package com.erenalyoruk.cashgrid.audit.model;
+
+public record PaymentFailedDetails(String reason) implements AuditDetails {}
@@ -0,0 +1,8 @@
+package com.erenalyoruk.cashgrid.audit.model;
+
+// What happens to an audit partition past the retention age
+public enum RetentionAction {
+    // Leave the table in place outside audit_logs, for archiving
+    DETACH,
+    DROP
+}
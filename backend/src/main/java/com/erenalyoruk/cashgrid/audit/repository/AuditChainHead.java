@@ -0,0 +1,4 @@
+package com.erenalyoruk.cashgrid.audit.repository;
+
+// The newest link of a chain; lastHash is null while the chain is empty
+public record AuditChainHead(int chainNo, long lastSeq, byte[] lastHash) {}
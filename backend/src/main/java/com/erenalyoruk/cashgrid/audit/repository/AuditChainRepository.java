@@ -0,0 +1,163 @@
+package com.erenalyoruk.cashgrid.audit.repository;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class AuditChainRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createHeads(int chains) {
+        jdbcTemplate.update(
+                "INSERT INTO audit_chain_heads (chain_no) SELECT generate_series(0, ? - 1)"
+                        + " ON CONFLICT (chain_no) DO NOTHING",
+                chains);
+    }
+
+    // Locked in chain order, so transactions appending to overlapping chains cannot deadlock
+    public Map<Integer, AuditChainHead> lockHeads(Collection<Integer> chainNos) {
+        Map<Integer, AuditChainHead> heads = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT chain_no, last_seq, last_hash FROM audit_chain_heads"
+                        + " WHERE chain_no = ANY(?) ORDER BY chain_no FOR UPDATE",
+                ps -> {
+                    Array array = ps.getConnection().createArrayOf("integer", chainNos.toArray());
+                    ps.setArray(1, array);
+                },
+                rs -> {
+                    AuditChainHead head = mapHead(rs);
+                    heads.put(head.chainNo(), head);
+                });
+        return heads;
+    }
+
+    public void updateHeads(List<AuditChainHead> heads) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE audit_chain_heads SET last_seq = ?, last_hash = ? WHERE chain_no = ?",
+                heads,
+                heads.size(),
+                (ps, head) -> {
+                    ps.setLong(1, head.lastSeq());
+                    ps.setBytes(2, head.lastHash());
+                    ps.setInt(3, head.chainNo());
+                });
+    }
+
+    // Details as the jsonb column will return them, which is what the hash has to cover
+    public List<String> normalizeDetails(List<String> details) {
+        return jdbcTemplate.query(
+                "SELECT d::jsonb::text FROM unnest(?::text[]) WITH ORDINALITY AS t(d, n)"
+                        + " ORDER BY n",
+                ps -> {
+                    Array array = ps.getConnection().createArrayOf("text", details.toArray());
+                    ps.setArray(1, array);
+                },
+                (rs, rowNum) -> rs.getString(1));
+    }
+
+    // Moves each chain's anchor up to its last link in the given partition. Runs before the
+    // partition leaves audit_logs, so the verifier knows where each remaining chain starts.
+    public void advanceAnchors(String partition) {
+        jdbcTemplate.update(
+                "UPDATE audit_chain_heads h SET anchor_seq = c.chain_seq, anchor_hash = c.hash"
+                        + " FROM (SELECT DISTINCT ON (chain_no) chain_no, chain_seq, hash FROM "
+                        + partition
+                        + " WHERE chain_no IS NOT NULL ORDER BY chain_no, chain_seq DESC) c"
+                        + " WHERE h.chain_no = c.chain_no AND c.chain_seq > h.anchor_seq");
+    }
+
+    // Every head with the first and last link after its anchor, read in one snapshot. With a
+    // created_at range only links inside it count, and only the range's partitions are read.
+    public List<AuditChainState> findStates(Instant from, Instant to) {
+        String select =
+                "SELECT h.chain_no, h.last_seq, h.last_hash, h.anchor_seq, h.anchor_hash,"
+                        + " s.min_seq, s.max_seq FROM audit_chain_heads h";
+        RowMapper<AuditChainState> mapper =
+                (rs, rowNum) ->
+                        new AuditChainState(
+                                mapHead(rs),
+                                rs.getLong("anchor_seq"),
+                                rs.getBytes("anchor_hash"),
+                                rs.getObject("min_seq", Long.class),
+                                rs.getObject("max_seq", Long.class));
+
+        if (from == null && to == null) {
+            return jdbcTemplate.query(
+                    select
+                            + " LEFT JOIN LATERAL (SELECT min(chain_seq) AS min_seq,"
+                            + " max(chain_seq) AS max_seq FROM audit_logs a"
+                            + " WHERE a.chain_no = h.chain_no AND a.chain_seq > h.anchor_seq) s"
+                            + " ON TRUE ORDER BY h.chain_no",
+                    mapper);
+        }
+
+        StringBuilder range = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            range.append(" AND a.created_at >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            range.append(" AND a.created_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        return jdbcTemplate.query(
+                select
+                        + " LEFT JOIN (SELECT a.chain_no, min(a.chain_seq) AS min_seq,"
+                        + " max(a.chain_seq) AS max_seq FROM audit_logs a"
+                        + " JOIN audit_chain_heads ah ON ah.chain_no = a.chain_no"
+                        + " WHERE a.chain_seq > ah.anchor_seq"
+                        + range
+                        + " GROUP BY a.chain_no) s ON s.chain_no = h.chain_no"
+                        + " ORDER BY h.chain_no",
+                mapper,
+                args.toArray());
+    }
+
+    public List<AuditLog> findLinks(int chainNo, long fromSeq, long toSeq) {
+        return jdbcTemplate.query(
+                "SELECT id, entity_type, entity_id, action, performed_by, correlation_id,"
+                        + " details::text AS details, created_at, chain_no, chain_seq, hash"
+                        + " FROM audit_logs WHERE chain_no = ? AND chain_seq BETWEEN ? AND ?"
+                        + " ORDER BY chain_seq",
+                (rs, rowNum) ->
+                        AuditLog.builder()
+                                .id(rs.getObject("id", UUID.class))
+                                .entityType(rs.getString("entity_type"))
+                                .entityId(rs.getObject("entity_id", UUID.class))
+                                .action(AuditAction.valueOf(rs.getString("action")))
+                                .performedBy(rs.getObject("performed_by", UUID.class))
+                                .correlationId(rs.getString("correlation_id"))
+                                .details(rs.getString("details"))
+                                .createdAt(rs.getTimestamp("created_at").toInstant())
+                                .chainNo(rs.getInt("chain_no"))
+                                .chainSeq(rs.getLong("chain_seq"))
+                                .hash(rs.getBytes("hash"))
+                                .build(),
+                chainNo,
+                fromSeq,
+                toSeq);
+    }
+
+    private static AuditChainHead mapHead(ResultSet rs) throws SQLException {
+        return new AuditChainHead(
+                rs.getInt("chain_no"), rs.getLong("last_seq"), rs.getBytes("last_hash"));
+    }
+}
@@ -0,0 +1,7 @@
+package com.erenalyoruk.cashgrid.audit.repository;
+
+// A chain's head and anchor next to the range of its links after the anchor still present in
+// audit_logs. anchorSeq is 0 and anchorHash null while no link has been cut off; minSeq and
+// maxSeq are null when no link is left.
+public record AuditChainState(
+        AuditChainHead head, long anchorSeq, byte[] anchorHash, Long minSeq, Long maxSeq) {}
@@ -0,0 +1,17 @@
+package com.erenalyoruk.cashgrid.audit.repository;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+// Optional search criteria; null or blank fields are ignored. details maps dotted paths inside
+// the details document (e.g. "sourceIban") to the value they must hold.
+public record AuditLogFilter(
+        AuditAction action,
+        UUID performedBy,
+        Instant from,
+        Instant to,
+        String correlationId,
+        String entityType,
+        Map<String, String> details) {}
@@ -1,18 +1,23 @@
 package com.erenalyoruk.cashgrid.audit.repository;
 
-import com.erenalyoruk.cashgrid.audit.model.AuditAction;
 import com.erenalyoruk.cashgrid.audit.model.AuditLog;
 import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface AuditLogRepositoryCustom {
-    Page<AuditLog> search(
-            AuditAction action,
-            java.util.UUID performedBy,
-            Instant from,
-            Instant to,
-            String correlationId,
-            String entityType,
-            Pageable pageable);
+    Page<AuditLog> search(AuditLogFilter filter, Pageable pageable);
+
+    Slice<AuditLog> searchAfter(
+            AuditLogFilter filter, Instant createdAt, UUID id, Pageable pageable);
+
+    long estimateCount(AuditLogFilter filter);
+
+    void forEachMatch(AuditLogFilter filter, Consumer<AuditLog> consumer);
+
+    void insertBatch(List<AuditLog> auditLogs);
 }
@@ -7,66 +7,73 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import tools.jackson.databind.ObjectMapper;
 
 public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
 
+    private static final String INSERT_AUDIT_LOG =
+            "INSERT INTO audit_logs (id, entity_type, entity_id, action, performed_by, "
+                    + "correlation_id, details, created_at, chain_no, chain_seq, hash) VALUES ";
+    private static final String AUDIT_LOG_ROW = "(?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?)";
+    private static final int AUDIT_LOG_COLUMNS = 11;
+
+    // Keeps each statement well under the protocol's limit of 65535 bind parameters
+    private static final int MAX_ROWS_PER_INSERT = 500;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+
     private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
 
-    public AuditLogRepositoryImpl(EntityManager em) {
+    public AuditLogRepositoryImpl(
+            EntityManager em, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
         this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
     }
 
     @Override
-    public Page<AuditLog> search(
-            AuditAction action,
-            UUID performedBy,
-            Instant from,
-            Instant to,
-            String correlationId,
-            String entityType,
-            Pageable pageable) {
+    public Page<AuditLog> search(AuditLogFilter filter, Pageable pageable) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
 
         CriteriaQuery<AuditLog> cq = cb.createQuery(AuditLog.class);
         Root<AuditLog> root = cq.from(AuditLog.class);
-
-        List<Predicate> predicates = new ArrayList<>();
-        if (action != null) predicates.add(cb.equal(root.get("action"), action));
-        if (performedBy != null) predicates.add(cb.equal(root.get("performedBy"), performedBy));
-        if (from != null) predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
-        if (to != null) predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), to));
-        if (correlationId != null && !correlationId.isBlank())
-            predicates.add(cb.equal(root.get("correlationId"), correlationId));
-        if (entityType != null && !entityType.isBlank())
-            predicates.add(cb.equal(root.get("entityType"), entityType));
-
-        cq.where(predicates.toArray(new Predicate[0]));
+        cq.where(predicates(cb, root, filter).toArray(new Predicate[0]));
         cq.orderBy(cb.desc(root.get("createdAt")));
 
         var query = em.createQuery(cq);
 
-        // optimized count query
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
         Root<AuditLog> countRoot = countQuery.from(AuditLog.class);
-        List<Predicate> countPredicates = new ArrayList<>();
-        if (action != null) countPredicates.add(cb.equal(countRoot.get("action"), action));
-        if (performedBy != null)
-            countPredicates.add(cb.equal(countRoot.get("performedBy"), performedBy));
-        if (from != null)
-            countPredicates.add(cb.greaterThanOrEqualTo(countRoot.get("createdAt"), from));
-        if (to != null) countPredicates.add(cb.lessThanOrEqualTo(countRoot.get("createdAt"), to));
-        if (correlationId != null && !correlationId.isBlank())
-            countPredicates.add(cb.equal(countRoot.get("correlationId"), correlationId));
-        if (entityType != null && !entityType.isBlank())
-            countPredicates.add(cb.equal(countRoot.get("entityType"), entityType));
-        countQuery.select(cb.count(countRoot)).where(countPredicates.toArray(new Predicate[0]));
+        countQuery
+                .select(cb.count(countRoot))
+                .where(predicates(cb, countRoot, filter).toArray(new Predicate[0]));
         Long totalLong = em.createQuery(countQuery).getSingleResult();
         int total = totalLong != null ? totalLong.intValue() : 0;
 
@@ -76,4 +83,235 @@ public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
 
         return new PageImpl<>(content, pageable, total);
     }
+
+    // Keyset walk over (created_at DESC, id DESC). Fetches one extra row to learn whether a next
+    // page exists, so no COUNT is run. The created_at bound on its own is what the index scan
+    // and partition pruning start from; the OR then only trims rows sharing that timestamp.
+    @Override
+    public Slice<AuditLog> searchAfter(
+            AuditLogFilter filter, Instant createdAt, UUID id, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<AuditLog> cq = cb.createQuery(AuditLog.class);
+        Root<AuditLog> root = cq.from(AuditLog.class);
+        List<Predicate> predicates = predicates(cb, root, filter);
+        predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), createdAt));
+        predicates.add(
+                cb.or(
+                        cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.and(
+                                cb.equal(root.get("createdAt"), createdAt),
+                                cb.lessThan(root.get("id"), id))));
+        cq.where(predicates.toArray(new Predicate[0]));
+        cq.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        List<AuditLog> rows =
+                em.createQuery(cq).setMaxResults(pageable.getPageSize() + 1).getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<AuditLog> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // The planner's row estimate for the search, read from EXPLAIN without touching any rows.
+    // Good enough for "about N results" in the UI, but can be far off for selective filters.
+    @Override
+    public long estimateCount(AuditLogFilter filter) {
+        List<Object> args = new ArrayList<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM audit_logs" + where(filter, args);
+
+        String plan = jdbcTemplate.queryForObject(sql, String.class, args.toArray());
+        // The first "Plan Rows" belongs to the top plan node
+        Matcher rows = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return rows.find() ? Long.parseLong(rows.group(1)) : 0;
+    }
+
+    // Reads every match newest first through a server-side cursor, EXPORT_FETCH_SIZE rows at a
+    // time, without loading entities into the persistence context. The driver only uses a
+    // cursor inside a transaction.
+    @Override
+    public void forEachMatch(AuditLogFilter filter, Consumer<AuditLog> consumer) {
+        List<Object> args = new ArrayList<>();
+        String sql =
+                "SELECT id, entity_type, entity_id, action, performed_by, correlation_id, details,"
+                        + " created_at FROM audit_logs"
+                        + where(filter, args)
+                        + " ORDER BY created_at DESC, id DESC";
+
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement =
+                            connection.prepareStatement(
+                                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(EXPORT_FETCH_SIZE);
+                    for (int i = 0; i < args.size(); i++) {
+                        statement.setObject(i + 1, args.get(i));
+                    }
+                    return statement;
+                },
+                (RowCallbackHandler)
+                        rs ->
+                                consumer.accept(
+                                        AuditLog.builder()
+                                                .id(rs.getObject("id", UUID.class))
+                                                .entityType(rs.getString("entity_type"))
+                                                .entityId(rs.getObject("entity_id", UUID.class))
+                                                .action(AuditAction.valueOf(rs.getString("action")))
+                                                .performedBy(
+                                                        rs.getObject("performed_by", UUID.class))
+                                                .correlationId(rs.getString("correlation_id"))
+                                                .details(rs.getString("details"))
+                                                .createdAt(
+                                                        rs.getTimestamp("created_at").toInstant())
+                                                .build()));
+    }
+
+    // One multi-row INSERT per MAX_ROWS_PER_INSERT entries
+    @Override
+    public void insertBatch(List<AuditLog> auditLogs) {
+        for (int start = 0; start < auditLogs.size(); start += MAX_ROWS_PER_INSERT) {
+            List<AuditLog> rows =
+                    auditLogs.subList(
+                            start, Math.min(start + MAX_ROWS_PER_INSERT, auditLogs.size()));
+
+            StringJoiner values = new StringJoiner(", ", INSERT_AUDIT_LOG, "");
+            for (int i = 0; i < rows.size(); i++) {
+                values.add(AUDIT_LOG_ROW);
+            }
+
+            jdbcTemplate.update(
+                    values.toString(),
+                    ps -> {
+                        for (int i = 0; i < rows.size(); i++) {
+                            AuditLog auditLog = rows.get(i);
+                            int offset = i * AUDIT_LOG_COLUMNS;
+                            Instant createdAt =
+                                    auditLog.getCreatedAt() != null
+                                            ? auditLog.getCreatedAt()
+                                            : Instant.now();
+                            ps.setObject(
+                                    offset + 1,
+                                    auditLog.getId() != null
+                                            ? auditLog.getId()
+                                            : UUID.randomUUID());
+                            ps.setString(offset + 2, auditLog.getEntityType());
+                            ps.setObject(offset + 3, auditLog.getEntityId());
+                            ps.setString(offset + 4, auditLog.getAction().name());
+                            ps.setObject(offset + 5, auditLog.getPerformedBy());
+                            ps.setString(offset + 6, auditLog.getCorrelationId());
+                            ps.setString(offset + 7, auditLog.getDetails());
+                            ps.setTimestamp(offset + 8, Timestamp.from(createdAt));
+                            ps.setObject(offset + 9, auditLog.getChainNo(), Types.INTEGER);
+                            ps.setObject(offset + 10, auditLog.getChainSeq(), Types.BIGINT);
+                            ps.setBytes(offset + 11, auditLog.getHash());
+                        }
+                    });
+        }
+    }
+
+    private List<Predicate> predicates(
+            CriteriaBuilder cb, Root<AuditLog> root, AuditLogFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.action() != null) predicates.add(cb.equal(root.get("action"), filter.action()));
+        if (filter.performedBy() != null)
+            predicates.add(cb.equal(root.get("performedBy"), filter.performedBy()));
+        if (filter.from() != null)
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.from()));
+        if (filter.to() != null)
+            predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.to()));
+        if (hasText(filter.correlationId()))
+            predicates.add(cb.equal(root.get("correlationId"), filter.correlationId()));
+        if (hasText(filter.entityType()))
+            predicates.add(cb.equal(root.get("entityType"), filter.entityType()));
+        for (List<String> documents : detailsDocuments(filter)) {
+            List<Predicate> any = new ArrayList<>();
+            for (String document : documents) {
+                any.add(
+                        cb.isTrue(
+                                cb.function(
+                                        "jsonb_contains",
+                                        Boolean.class,
+                                        root.get("details"),
+                                        cb.literal(document))));
+            }
+            predicates.add(cb.or(any.toArray(new Predicate[0])));
+        }
+        return predicates;
+    }
+
+    // The search filters as a SQL WHERE clause, with their values appended to args
+    private String where(AuditLogFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder(" WHERE TRUE");
+        if (filter.action() != null) {
+            sql.append(" AND action = ?");
+            args.add(filter.action().name());
+        }
+        if (filter.performedBy() != null) {
+            sql.append(" AND performed_by = ?");
+            args.add(filter.performedBy());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(Timestamp.from(filter.to()));
+        }
+        if (hasText(filter.correlationId())) {
+            sql.append(" AND correlation_id = ?");
+            args.add(filter.correlationId());
+        }
+        if (hasText(filter.entityType())) {
+            sql.append(" AND entity_type = ?");
+            args.add(filter.entityType());
+        }
+        for (List<String> documents : detailsDocuments(filter)) {
+            StringJoiner any = new StringJoiner(" OR ", " AND (", ")");
+            for (String document : documents) {
+                any.add("details @> ?::jsonb");
+                args.add(document);
+            }
+            sql.append(any);
+        }
+        return sql.toString();
+    }
+
+    // One group of containment documents per details filter; a row has to contain any one of
+    // its group. A value that reads as a number or boolean may be stored either as that or as a
+    // string, so it gets a document for each.
+    private List<List<String>> detailsDocuments(AuditLogFilter filter) {
+        if (filter.details() == null) {
+            return List.of();
+        }
+
+        List<List<String>> groups = new ArrayList<>();
+        for (Map.Entry<String, String> entry : filter.details().entrySet()) {
+            String[] path = entry.getKey().split("\\.");
+            String value = entry.getValue();
+
+            List<Object> values = new ArrayList<>();
+            values.add(value);
+            if (value.equals("true") || value.equals("false")) {
+                values.add(Boolean.parseBoolean(value));
+            } else if (NUMBER.matcher(value).matches()) {
+                values.add(new BigDecimal(value));
+            }
+
+            List<String> documents = new ArrayList<>(values.size());
+            for (Object leaf : values) {
+                Object document = leaf;
+                for (int i = path.length - 1; i >= 0; i--) {
+                    document = Map.of(path[i], document);
+                }
+                documents.add(objectMapper.writeValueAsString(document));
+            }
+            groups.add(documents);
+        }
+        return groups;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
 }
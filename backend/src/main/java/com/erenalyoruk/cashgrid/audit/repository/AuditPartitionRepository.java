@@ -0,0 +1,220 @@
+package com.erenalyoruk.cashgrid.audit.repository;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+// DDL for the monthly audit_logs partitions, named audit_logs_pYYYY_MM
+@Repository
+@RequiredArgsConstructor
+public class AuditPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_p(\\d{4})_(\\d{2})");
+
+    // Serializes maintenance across nodes while the run holds its connection
+    private static final long MAINTENANCE_LOCK = 0x6175646974L;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs task under a session-level advisory lock held on a connection of its own, so the
+    // task's statements can commit one by one. Returns false when another node holds the lock.
+    public boolean withMaintenanceLock(Runnable task) {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.execute(
+                        (ConnectionCallback<Boolean>)
+                                connection -> {
+                                    if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                                        return false;
+                                    }
+                                    try {
+                                        task.run();
+                                    } finally {
+                                        advisoryLock(connection, "pg_advisory_unlock");
+                                    }
+                                    return true;
+                                }));
+    }
+
+    public YearMonth currentMonth() {
+        return YearMonth.from(
+                jdbcTemplate
+                        .queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class)
+                        .toLocalDateTime());
+    }
+
+    // Monthly partitions currently attached to audit_logs, oldest first
+    public List<YearMonth> findPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name :
+                jdbcTemplate.queryForList(
+                        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                                + " WHERE i.inhparent = 'audit_logs'::regclass",
+                        String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(
+                        YearMonth.of(
+                                Integer.parseInt(matcher.group(1)),
+                                Integer.parseInt(matcher.group(2))));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    // CREATE TABLE ... PARTITION OF would take ACCESS EXCLUSIVE on audit_logs; creating the
+    // table first and attaching it only needs SHARE UPDATE EXCLUSIVE, which inserts don't wait on
+    public void createPartition(YearMonth month, long lockTimeoutMs) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute(
+                String.format(
+                        "CREATE TABLE IF NOT EXISTS %s (LIKE audit_logs INCLUDING DEFAULTS)",
+                        partition));
+        executeWithLockTimeout(
+                String.format(
+                        "ALTER TABLE audit_logs ATTACH PARTITION %s"
+                                + " FOR VALUES FROM ('%s') TO ('%s')",
+                        partition,
+                        month.atDay(1),
+                        month.plusMonths(1).atDay(1)),
+                lockTimeoutMs);
+    }
+
+    // A closed month is only appended to by late writers, so its rows stay in created_at order
+    // and a BRIN index covers range scans at a fraction of the B-tree's size. Built
+    // concurrently; a build that failed leaves an invalid index, which is dropped and rebuilt.
+    public void createBrinIndex(YearMonth month, long lockTimeoutMs) {
+        String partition = partitionName(month);
+        String index = partition + "_created_at_brin";
+        // Checked first so existing indexes don't cost a lock on the partition
+        List<Boolean> valid =
+                jdbcTemplate.queryForList(
+                        "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+                        Boolean.class,
+                        index);
+        if (valid.contains(Boolean.TRUE)) {
+            return;
+        }
+        if (!valid.isEmpty()) {
+            executeWithLockTimeout("DROP INDEX CONCURRENTLY IF EXISTS " + index, lockTimeoutMs);
+        }
+        executeWithLockTimeout(
+                String.format(
+                        "CREATE INDEX CONCURRENTLY %s ON %s USING brin (created_at)",
+                        index, partition),
+                lockTimeoutMs);
+    }
+
+    // Streams one month's rows oldest first without loading them all; needs a transaction so the
+    // driver can fetch through a cursor
+    public void forEachRow(YearMonth month, Consumer<AuditLog> consumer) {
+        String sql =
+                "SELECT id, entity_type, entity_id, action, performed_by, correlation_id,"
+                        + " details::text AS details, created_at, chain_no, chain_seq, hash FROM "
+                        + partitionName(month)
+                        + " ORDER BY created_at, id";
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql);
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                },
+                (RowCallbackHandler)
+                        rs ->
+                                consumer.accept(
+                                        AuditLog.builder()
+                                                .id(rs.getObject("id", UUID.class))
+                                                .entityType(rs.getString("entity_type"))
+                                                .entityId(rs.getObject("entity_id", UUID.class))
+                                                .action(AuditAction.valueOf(rs.getString("action")))
+                                                .performedBy(
+                                                        rs.getObject("performed_by", UUID.class))
+                                                .correlationId(rs.getString("correlation_id"))
+                                                .details(rs.getString("details"))
+                                                .createdAt(
+                                                        rs.getTimestamp("created_at").toInstant())
+                                                .chainNo(rs.getObject("chain_no", Integer.class))
+                                                .chainSeq(rs.getObject("chain_seq", Long.class))
+                                                .hash(rs.getBytes("hash"))
+                                                .build()));
+    }
+
+    // Detached concurrently so inserts into audit_logs keep running. A detach that was
+    // interrupted leaves the partition pending and is finished with FINALIZE instead.
+    public void detachPartition(YearMonth month, long lockTimeoutMs) {
+        String partition = partitionName(month);
+        List<Boolean> pending =
+                jdbcTemplate.queryForList(
+                        "SELECT inhdetachpending FROM pg_inherits"
+                                + " WHERE inhrelid = to_regclass(?)"
+                                + " AND inhparent = 'audit_logs'::regclass",
+                        Boolean.class,
+                        partition);
+        if (pending.isEmpty()) {
+            return;
+        }
+        executeWithLockTimeout(
+                "ALTER TABLE audit_logs DETACH PARTITION "
+                        + partition
+                        + (pending.get(0) ? " FINALIZE" : " CONCURRENTLY"),
+                lockTimeoutMs);
+    }
+
+    // Only ever called on detached partitions, so audit_logs itself is not locked
+    public void dropPartition(YearMonth month, long lockTimeoutMs) {
+        executeWithLockTimeout("DROP TABLE IF EXISTS " + partitionName(month), lockTimeoutMs);
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("audit_logs_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    // Runs on an autocommit connection, as the CONCURRENTLY forms require, and gives up after
+    // lockTimeoutMs instead of queueing: anything that waits behind a pending lock on audit_logs
+    // would otherwise wait too
+    private void executeWithLockTimeout(String sql, long lockTimeoutMs) {
+        jdbcTemplate.execute(
+                (ConnectionCallback<Void>)
+                        connection -> {
+                            try (Statement statement = connection.createStatement()) {
+                                statement.execute("SET lock_timeout = " + lockTimeoutMs);
+                                try {
+                                    statement.execute(sql);
+                                } finally {
+                                    statement.execute("RESET lock_timeout");
+                                }
+                            }
+                            return null;
+                        });
+    }
+
+    private static boolean advisoryLock(Connection connection, String function)
+            throws SQLException {
+        try (PreparedStatement statement =
+                connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.archive.AuditArchive;
+import com.erenalyoruk.cashgrid.audit.archive.AuditSegmentWriter;
+import com.erenalyoruk.cashgrid.audit.config.AuditArchiveProperties;
+import com.erenalyoruk.cashgrid.audit.config.AuditPartitionProperties;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditLogRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditPartitionRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class AuditArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditPartitionRepository auditPartitionRepository;
+    private final AuditChainRepository auditChainRepository;
+    private final AuditArchive auditArchive;
+    private final AuditArchiveProperties properties;
+    private final AuditPartitionProperties partitionProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    // Copies a month's partition into a segment file, then detaches and drops the partition.
+    // The copy runs in a read-only transaction of its own that only touches the month's
+    // partition, so it takes no lock on audit_logs; the chain anchors then move past the month,
+    // and the detach and drop come last as short lock-bounded statements. The segment is
+    // complete on disk before the drop; if the drop is lost the next run rewrites the same
+    // segment, and until then lookups may return the month's rows twice.
+    public long archive(YearMonth month) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        long records = transaction.execute(status -> writeSegment(month));
+
+        auditChainRepository.advanceAnchors(AuditPartitionRepository.partitionName(month));
+        auditPartitionRepository.detachPartition(month, partitionProperties.getLockTimeoutMs());
+        auditPartitionRepository.dropPartition(month, partitionProperties.getLockTimeoutMs());
+
+        log.info("Archived audit partition {}: {} entries", month, records);
+        return records;
+    }
+
+    public Page<AuditLog> findByEntity(String entityType, UUID entityId, Pageable pageable) {
+        return withArchived(
+                auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId, pageable),
+                (offset, limit) -> auditArchive.findByEntity(entityType, entityId, offset, limit));
+    }
+
+    public Page<AuditLog> findByCorrelationId(String correlationId, Pageable pageable) {
+        return withArchived(
+                auditLogRepository.findByCorrelationId(correlationId, pageable),
+                (offset, limit) -> auditArchive.findByCorrelationId(correlationId, offset, limit));
+    }
+
+    // Archived months are older than every live row, so they continue the live pages. The
+    // archive only reads the part of the page the live rows leave, though it always counts.
+    private static Page<AuditLog> withArchived(
+            Page<AuditLog> livePage, BiFunction<Long, Integer, AuditArchive.Matches> archive) {
+        Pageable pageable = livePage.getPageable();
+        long liveTotal = livePage.getTotalElements();
+        List<AuditLog> content = new ArrayList<>(livePage.getContent());
+
+        AuditArchive.Matches archived =
+                archive.apply(
+                        Math.max(0, pageable.getOffset() - liveTotal),
+                        pageable.getPageSize() - content.size());
+        content.addAll(archived.content());
+        return new PageImpl<>(content, pageable, liveTotal + archived.total());
+    }
+
+    private long writeSegment(YearMonth month) {
+        try (AuditSegmentWriter writer =
+                new AuditSegmentWriter(
+                        auditArchive.directory(),
+                        month,
+                        properties.getBlockRecords(),
+                        properties.getIndexRunEntries())) {
+            auditPartitionRepository.forEachRow(month, auditLog -> append(writer, auditLog));
+            writer.finish();
+            auditArchive.open(month);
+            return writer.records();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive audit partition " + month, e);
+        }
+    }
+
+    private static void append(AuditSegmentWriter writer, AuditLog auditLog) {
+        try {
+            writer.append(auditLog);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
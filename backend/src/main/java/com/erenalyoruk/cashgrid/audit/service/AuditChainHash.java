@@ -0,0 +1,60 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+// SHA-256 over the previous link's hash and the entry's stored fields. Variable-length fields
+// are length-prefixed so no two entries share an encoding.
+final class AuditChainHash {
+
+    // Stands in for the previous hash of a chain's first link
+    static final byte[] GENESIS = new byte[32];
+
+    private AuditChainHash() {}
+
+    static byte[] link(byte[] previous, AuditLog auditLog) {
+        MessageDigest digest = sha256();
+        digest.update(previous != null ? previous : GENESIS);
+        ByteBuffer fixed = ByteBuffer.allocate(68);
+        putUuid(fixed, auditLog.getId());
+        putUuid(fixed, auditLog.getEntityId());
+        putUuid(fixed, auditLog.getPerformedBy());
+        fixed.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, auditLog.getCreatedAt()));
+        fixed.putInt(auditLog.getChainNo());
+        fixed.putLong(auditLog.getChainSeq());
+        digest.update(fixed.array());
+        putString(digest, auditLog.getEntityType());
+        putString(digest, auditLog.getAction().name());
+        putString(digest, auditLog.getCorrelationId());
+        putString(digest, auditLog.getDetails());
+        return digest.digest();
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    // -1 for null, otherwise the UTF-8 length followed by the bytes
+    private static void putString(MessageDigest digest, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        digest.update(ByteBuffer.allocate(4).putInt(bytes != null ? bytes.length : -1).array());
+        if (bytes != null) {
+            digest.update(bytes);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
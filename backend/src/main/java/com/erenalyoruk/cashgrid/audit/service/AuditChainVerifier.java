@@ -0,0 +1,211 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.config.AuditChainProperties;
+import com.erenalyoruk.cashgrid.audit.dto.AuditChainBreak;
+import com.erenalyoruk.cashgrid.audit.dto.AuditChainVerificationResponse;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainHead;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainState;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+// Walks every chain still in audit_logs. Chains are cut into segments of verifySegmentSize
+// links which are checked on a fork/join pool; each segment also reads the link before it, so
+// segments need nothing from each other. A full check starts each chain right after the anchor
+// recorded when its older links left through retention or archiving, so links missing from the
+// front are reported too. A created_at range checks only the links inside it.
+@Service
+@RequiredArgsConstructor
+public class AuditChainVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditChainVerifier.class);
+
+    private final AuditChainRepository auditChainRepository;
+    private final AuditChainProperties properties;
+
+    public AuditChainVerificationResponse verify(Instant from, Instant to) {
+        long started = System.nanoTime();
+        boolean ranged = from != null || to != null;
+
+        List<AuditChainState> states = auditChainRepository.findStates(from, to);
+        List<Segment> segments = new ArrayList<>();
+        Map<Integer, AuditChainBreak> breaks = new TreeMap<>();
+        for (AuditChainState state : states) {
+            AuditChainHead head = state.head();
+            if (state.maxSeq() == null) {
+                // Every link after the anchor is gone; a range may just hold none of them
+                if (!ranged && head.lastSeq() > state.anchorSeq()) {
+                    breaks.put(
+                            head.chainNo(),
+                            new AuditChainBreak(
+                                    head.chainNo(),
+                                    state.anchorSeq() + 1,
+                                    null,
+                                    AuditChainBreak.MISSING_LINK));
+                }
+                continue;
+            }
+
+            long first = ranged ? state.minSeq() : state.anchorSeq() + 1;
+            long last = ranged ? state.maxSeq() : Math.max(state.maxSeq(), head.lastSeq());
+            for (long start = first; start <= last; ) {
+                long end = Math.min(last, start + properties.getVerifySegmentSize() - 1);
+                segments.add(new Segment(state, start, end));
+                start = end + 1;
+            }
+        }
+
+        SegmentResult result = SegmentResult.EMPTY;
+        if (!segments.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(properties.getVerifyParallelism());
+            try {
+                result = pool.invoke(new VerifyTask(segments, 0, segments.size()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // Keep the earliest break of each chain
+        for (AuditChainBreak chainBreak : result.breaks()) {
+            breaks.merge(
+                    chainBreak.chainNo(),
+                    chainBreak,
+                    (a, b) -> a.chainSeq() <= b.chainSeq() ? a : b);
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info(
+                "Audit chain verification: {} links in {} segments, {} broken chains, {} ms",
+                result.checked(),
+                segments.size(),
+                breaks.size(),
+                durationMs);
+
+        return AuditChainVerificationResponse.builder()
+                .valid(breaks.isEmpty())
+                .chains(states.size())
+                .linksChecked(result.checked())
+                .durationMs(durationMs)
+                .breaks(new ArrayList<>(breaks.values()))
+                .build();
+    }
+
+    // Links from..to of one chain
+    private record Segment(AuditChainState state, long from, long to) {}
+
+    private record SegmentResult(long checked, List<AuditChainBreak> breaks) {
+
+        static final SegmentResult EMPTY = new SegmentResult(0, List.of());
+
+        SegmentResult plus(SegmentResult other) {
+            List<AuditChainBreak> all = new ArrayList<>(breaks);
+            all.addAll(other.breaks);
+            return new SegmentResult(checked + other.checked, all);
+        }
+    }
+
+    private class VerifyTask extends RecursiveTask<SegmentResult> {
+
+        private final List<Segment> segments;
+        private final int start;
+        private final int end;
+
+        VerifyTask(List<Segment> segments, int start, int end) {
+            this.segments = segments;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected SegmentResult compute() {
+            if (end - start == 1) {
+                return verifySegment(segments.get(start));
+            }
+            int mid = (start + end) >>> 1;
+            VerifyTask left = new VerifyTask(segments, start, mid);
+            left.fork();
+            SegmentResult right = new VerifyTask(segments, mid, end).compute();
+            return left.join().plus(right);
+        }
+    }
+
+    private SegmentResult verifySegment(Segment segment) {
+        AuditChainState state = segment.state();
+        AuditChainHead head = state.head();
+        int chainNo = head.chainNo();
+        boolean withPrevious = segment.from() > state.anchorSeq() + 1;
+        List<AuditLog> links =
+                auditChainRepository.findLinks(
+                        chainNo, withPrevious ? segment.from() - 1 : segment.from(), segment.to());
+
+        // The link after the anchor continues from the anchor's hash, or from the genesis hash
+        // while nothing has been cut off
+        byte[] previous = null;
+        if (!withPrevious) {
+            previous = state.anchorSeq() == 0 ? AuditChainHash.GENESIS : state.anchorHash();
+        }
+        long expected = segment.from();
+        long checked = 0;
+        for (AuditLog link : links) {
+            long seq = link.getChainSeq();
+            if (seq < segment.from()) {
+                previous = link.getHash();
+                continue;
+            }
+
+            if (seq != expected) {
+                AuditChainBreak chainBreak =
+                        seq < expected
+                                ? new AuditChainBreak(
+                                        chainNo, seq, link.getId(), AuditChainBreak.DUPLICATE_LINK)
+                                : new AuditChainBreak(
+                                        chainNo, expected, null, AuditChainBreak.MISSING_LINK);
+                return new SegmentResult(checked, List.of(chainBreak));
+            }
+            if (seq > head.lastSeq()) {
+                return broken(checked, link, AuditChainBreak.UNEXPECTED_LINK);
+            }
+            if (previous != null
+                    && !MessageDigest.isEqual(
+                            link.getHash(), AuditChainHash.link(previous, link))) {
+                return broken(checked, link, AuditChainBreak.HASH_MISMATCH);
+            }
+            if (seq == head.lastSeq() && !MessageDigest.isEqual(link.getHash(), head.lastHash())) {
+                return broken(checked, link, AuditChainBreak.HEAD_MISMATCH);
+            }
+
+            previous = link.getHash();
+            expected++;
+            checked++;
+        }
+
+        if (expected <= segment.to()) {
+            return new SegmentResult(
+                    checked,
+                    List.of(
+                            new AuditChainBreak(
+                                    chainNo, expected, null, AuditChainBreak.MISSING_LINK)));
+        }
+        return new SegmentResult(checked, List.of());
+    }
+
+    private static SegmentResult broken(long checked, AuditLog link, String reason) {
+        return new SegmentResult(
+                checked,
+                List.of(
+                        new AuditChainBreak(
+                                link.getChainNo(), link.getChainSeq(), link.getId(), reason)));
+    }
+}
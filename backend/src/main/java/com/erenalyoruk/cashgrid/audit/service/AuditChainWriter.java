@@ -0,0 +1,105 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.config.AuditChainProperties;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainHead;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Links a batch of entries onto their chains and inserts them. Each chain head touched by the
+// batch is locked once, so transactions only wait on each other when they share a chain.
+@Service
+@RequiredArgsConstructor
+public class AuditChainWriter {
+
+    private final AuditChainRepository auditChainRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final AuditChainProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        auditChainRepository.createHeads(properties.getChains());
+    }
+
+    @Transactional
+    public void write(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<String> details = new ArrayList<>(auditLogs.size());
+        for (AuditLog auditLog : auditLogs) {
+            if (auditLog.getId() == null) {
+                auditLog.setId(UUID.randomUUID());
+            }
+            auditLog.setCreatedAt(
+                    auditLog.getCreatedAt() != null
+                            ? auditLog.getCreatedAt().truncatedTo(ChronoUnit.MICROS)
+                            : now);
+            details.add(auditLog.getDetails());
+        }
+
+        // The hash covers details as jsonb will hand them back to the verifier
+        if (details.stream().anyMatch(Objects::nonNull)) {
+            List<String> normalized = auditChainRepository.normalizeDetails(details);
+            for (int i = 0; i < auditLogs.size(); i++) {
+                auditLogs.get(i).setDetails(normalized.get(i));
+            }
+        }
+
+        Map<Integer, List<AuditLog>> byChain = new TreeMap<>();
+        for (AuditLog auditLog : auditLogs) {
+            int chainNo = Math.floorMod(auditLog.getEntityId().hashCode(), properties.getChains());
+            byChain.computeIfAbsent(chainNo, c -> new ArrayList<>()).add(auditLog);
+        }
+
+        Map<Integer, AuditChainHead> heads = auditChainRepository.lockHeads(byChain.keySet());
+        List<AuditChainHead> newHeads = new ArrayList<>(byChain.size());
+        byChain.forEach(
+                (chainNo, links) -> {
+                    AuditChainHead head = heads.get(chainNo);
+                    if (head == null) {
+                        throw new IllegalStateException("No audit chain head " + chainNo);
+                    }
+
+                    long seq = head.lastSeq();
+                    byte[] hash = head.lastHash();
+                    links.sort(Comparator.comparing(AuditLog::getCreatedAt));
+                    for (AuditLog auditLog : links) {
+                        auditLog.setChainNo(chainNo);
+                        auditLog.setChainSeq(++seq);
+                        hash = AuditChainHash.link(hash, auditLog);
+                        auditLog.setHash(hash);
+                    }
+                    newHeads.add(new AuditChainHead(chainNo, seq, hash));
+                });
+
+        auditLogRepository.insertBatch(auditLogs);
+        auditChainRepository.updateHeads(newHeads);
+
+        // Includes the wait for chain head locks shared with concurrent writers
+        sample.stop(
+                Timer.builder("audit.write")
+                        .description("Linking and inserting a batch of audit entries")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+}
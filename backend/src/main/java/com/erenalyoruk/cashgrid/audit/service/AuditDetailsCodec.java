@@ -0,0 +1,19 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.model.AuditDetails;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+// Serializes audit details for the jsonb column. The shared mapper caches a serializer per
+// record type and recycles its output buffers, so a write costs one string allocation.
+@Component
+@RequiredArgsConstructor
+public class AuditDetailsCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String write(AuditDetails details) {
+        return details != null ? objectMapper.writeValueAsString(details) : null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.dto.AuditLogResponse;
+import com.erenalyoruk.cashgrid.audit.mapper.AuditLogMapper;
+import com.erenalyoruk.cashgrid.audit.model.AuditExportFormat;
+import com.erenalyoruk.cashgrid.audit.repository.AuditLogFilter;
+import com.erenalyoruk.cashgrid.audit.repository.AuditLogRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+@Service
+@RequiredArgsConstructor
+public class AuditExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER =
+            "id,entity_type,entity_id,action,performed_by,correlation_id,created_at,details\r\n";
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditLogMapper auditLogMapper;
+    private final ObjectMapper objectMapper;
+
+    // Writes every matching entry as it comes off the cursor, so memory stays flat however many
+    // rows match. Returns the number of rows written.
+    @Transactional(readOnly = true)
+    public long export(AuditLogFilter filter, AuditExportFormat format, OutputStream out) {
+        Writer writer =
+                new BufferedWriter(
+                        new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long[] rows = {0};
+        try {
+            if (format == AuditExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            auditLogRepository.forEachMatch(
+                    filter,
+                    auditLog -> {
+                        write(writer, format, auditLogMapper.toResponse(auditLog));
+                        rows[0]++;
+                    });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Audit export: {} rows as {}", rows[0], format);
+        return rows[0];
+    }
+
+    private void write(Writer writer, AuditExportFormat format, AuditLogResponse response) {
+        try {
+            if (format == AuditExportFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(response));
+                writer.write('\n');
+                return;
+            }
+
+            writer.write(csv(response.id()));
+            writer.write(',');
+            writer.write(csv(response.entityType()));
+            writer.write(',');
+            writer.write(csv(response.entityId()));
+            writer.write(',');
+            writer.write(csv(response.action()));
+            writer.write(',');
+            writer.write(csv(response.performedBy()));
+            writer.write(',');
+            writer.write(csv(response.correlationId()));
+            writer.write(',');
+            writer.write(csv(response.createdAt()));
+            writer.write(',');
+            writer.write(csv(response.details()));
+            writer.write("\r\n");
+        } catch (IOException e) {
+            // The client went away; the cursor and transaction are closed on the way out
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180: quoted when the value holds a separator, quote or line break
+    private static String csv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0
+                && text.indexOf('"') < 0
+                && text.indexOf('\n') < 0
+                && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,69 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.config.AuditPartitionProperties;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Runs partition maintenance at startup and then every check-interval-ms on every node; the
+// advisory lock in AuditPartitionService lets one of them do the work.
+@Component
+@RequiredArgsConstructor
+public class AuditPartitionMaintainer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionMaintainer.class);
+
+    private final AuditPartitionService auditPartitionService;
+    private final AuditPartitionProperties properties;
+
+    private volatile boolean running;
+    private Thread maintainer;
+
+    @Override
+    public synchronized void start() {
+        if (running || !properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        maintainer = Thread.ofVirtual().name("audit-partition-maintainer").start(this::loop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        maintainer.interrupt();
+        try {
+            maintainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                auditPartitionService.maintain();
+            } catch (RuntimeException e) {
+                log.warn("Audit partition maintenance failed", e);
+            }
+
+            try {
+                Thread.sleep(properties.getCheckIntervalMs());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
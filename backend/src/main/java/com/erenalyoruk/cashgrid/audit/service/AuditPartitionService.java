@@ -0,0 +1,122 @@
+package com.erenalyoruk.cashgrid.audit.service;
+
+import com.erenalyoruk.cashgrid.audit.config.AuditArchiveProperties;
+import com.erenalyoruk.cashgrid.audit.config.AuditPartitionProperties;
+import com.erenalyoruk.cashgrid.audit.model.RetentionAction;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditPartitionRepository;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AuditPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionService.class);
+
+    private final AuditPartitionRepository auditPartitionRepository;
+    private final AuditChainRepository auditChainRepository;
+    private final AuditPartitionProperties properties;
+    private final AuditArchiveService auditArchiveService;
+    private final AuditArchiveProperties archiveProperties;
+
+    // Creates upcoming partitions, archives and applies retention to old months, and adds BRIN
+    // indexes to closed months. Runs outside a transaction: every step is a short statement of
+    // its own that gives up after lock-timeout-ms, so audit inserts never queue behind
+    // maintenance, and a step that gives up is retried on the next run.
+    // Skipped when another node holds the maintenance lock.
+    public void maintain() {
+        if (!auditPartitionRepository.withMaintenanceLock(this::runMaintenance)) {
+            log.debug("Audit partition maintenance is running on another node");
+        }
+    }
+
+    // Takes every partition for a month before the cutoff out of audit_logs. Detaching or
+    // dropping a whole month is a catalog change, so no rows are deleted one by one. Chain
+    // anchors move past the month first. Stops at the first month that cannot be detached so
+    // retention only ever removes the oldest months.
+    public List<YearMonth> applyRetention(YearMonth cutoff) {
+        long lockTimeoutMs = properties.getLockTimeoutMs();
+        List<YearMonth> removed = new ArrayList<>();
+        for (YearMonth month : auditPartitionRepository.findPartitions()) {
+            if (!month.isBefore(cutoff)) {
+                break;
+            }
+
+            try {
+                auditChainRepository.advanceAnchors(
+                        AuditPartitionRepository.partitionName(month));
+                auditPartitionRepository.detachPartition(month, lockTimeoutMs);
+                if (properties.getRetentionAction() == RetentionAction.DROP) {
+                    auditPartitionRepository.dropPartition(month, lockTimeoutMs);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Audit partition {} not removed, retrying next run", month, e);
+                break;
+            }
+            removed.add(month);
+        }
+
+        if (!removed.isEmpty()) {
+            log.info(
+                    "Audit partitions {} past retention: {}",
+                    properties.getRetentionAction() == RetentionAction.DROP
+                            ? "dropped"
+                            : "detached",
+                    removed);
+        }
+        return removed;
+    }
+
+    private void runMaintenance() {
+        long lockTimeoutMs = properties.getLockTimeoutMs();
+        YearMonth current = auditPartitionRepository.currentMonth();
+        List<YearMonth> existing = auditPartitionRepository.findPartitions();
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                attempt(
+                        "create",
+                        month,
+                        () -> auditPartitionRepository.createPartition(month, lockTimeoutMs));
+            }
+        }
+
+        if (archiveProperties.isEnabled()) {
+            YearMonth cutoff = current.minusMonths(archiveProperties.getAfterMonths());
+            for (YearMonth month : auditPartitionRepository.findPartitions()) {
+                if (month.isBefore(cutoff)) {
+                    attempt("archive", month, () -> auditArchiveService.archive(month));
+                }
+            }
+        }
+
+        if (properties.getRetentionMonths() > 0) {
+            applyRetention(current.minusMonths(properties.getRetentionMonths()));
+        }
+
+        for (YearMonth month : auditPartitionRepository.findPartitions()) {
+            if (month.isBefore(current)) {
+                attempt(
+                        "index",
+                        month,
+                        () -> auditPartitionRepository.createBrinIndex(month, lockTimeoutMs));
+            }
+        }
+    }
+
+    // One month's step failing, typically on lock_timeout, leaves the others to run
+    private static void attempt(String step, YearMonth month, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Audit partition {} of {} failed, retrying next run", step, month, e);
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.erenalyoruk.cashgrid.audit.service;
 
 import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditDetails;
 import com.erenalyoruk.cashgrid.audit.model.AuditLog;
-import com.erenalyoruk.cashgrid.audit.repository.AuditLogRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
@@ -17,16 +22,19 @@ public class AuditService {
 
     private static final Logger log = LoggerFactory.getLogger(AuditService.class);
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditChainWriter auditChainWriter;
+    private final AuditDetailsCodec auditDetailsCodec;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    // Inside a transaction the entry is buffered and written with the rest of that transaction's
+    // entries in one multi-row insert just before it commits, on the caller's connection. Entries
+    // commit or roll back with the change they describe.
     public void log(
             String entityType,
             UUID entityId,
             AuditAction action,
             UUID performedBy,
             String correlationId,
-            String details) {
+            AuditDetails details) {
 
         AuditLog auditLog =
                 AuditLog.builder()
@@ -35,11 +43,52 @@ public class AuditService {
                         .action(action)
                         .performedBy(performedBy)
                         .correlationId(correlationId)
-                        .details(details)
+                        .details(auditDetailsCodec.write(details))
+                        .createdAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
                         .build();
 
-        auditLogRepository.save(auditLog);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingLogs().add(auditLog);
+        } else {
+            auditChainWriter.write(List.of(auditLog));
+        }
 
         log.debug("Audit log: {} {} on {}:{}", action, performedBy, entityType, entityId);
     }
+
+    // Joins the caller's transaction so batch audit rows commit atomically with their payments.
+    // Buffered like single entries, so a transaction locks its chain heads only once.
+    @Transactional
+    public void logBatch(List<AuditLog> auditLogs) {
+        pendingLogs().addAll(auditLogs);
+
+        log.debug("Audit log batch: {} entries", auditLogs.size());
+    }
+
+    private List<AuditLog> pendingLogs() {
+        // Synchronizations are suspended along with their transaction, so an inner
+        // REQUIRES_NEW transaction gets its own buffer
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingAuditLogs pending) {
+                return pending.logs;
+            }
+        }
+
+        PendingAuditLogs pending = new PendingAuditLogs();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.logs;
+    }
+
+    private class PendingAuditLogs implements TransactionSynchronization {
+
+        private final List<AuditLog> logs = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            auditChainWriter.write(logs);
+            log.debug("Audit log flush: {} entries", logs.size());
+        }
+    }
 }
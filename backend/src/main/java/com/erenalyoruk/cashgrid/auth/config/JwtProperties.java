@@ -14,4 +14,7 @@ public class JwtProperties {
     private String secret;
     private long accessTokenExpiration = 900000; // 15 minutes
     private long refreshTokenExpiration = 604800000; // 7 days
+    private int principalCacheSize = 10000;
+    private long principalCacheTtlMs = 60000; // 1 minute
+    private int verifiedTokenCacheSize = 10000;
 }
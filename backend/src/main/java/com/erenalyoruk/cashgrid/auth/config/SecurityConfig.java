@@ -1,6 +1,8 @@
 package com.erenalyoruk.cashgrid.auth.config;
 
 import com.erenalyoruk.cashgrid.auth.security.JwtAuthenticationFilter;
+import com.erenalyoruk.cashgrid.common.filter.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,6 +30,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Value("${app.cors.allowed-origins:http://localhost:3000}")
     private String allowedOrigins;
@@ -54,6 +57,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(
                         auth ->
                                 auth
+                                        // Streamed responses finish on an async dispatch of a
+                                        // request that was already authorized
+                                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                                        .permitAll()
                                         // Profile endpoints require authentication
                                         .requestMatchers("/api/v1/auth/me", "/api/v1/auth/me/**")
                                         .authenticated()
@@ -68,6 +75,10 @@ public class SecurityConfig {
                                         .permitAll()
                                         .requestMatchers("/actuator/health", "/actuator/info")
                                         .permitAll()
+                                        // Scraped without a token; actuator is only served
+                                        // on the management port, which is not published
+                                        .requestMatchers("/actuator/prometheus")
+                                        .permitAll()
                                         // Admin endpoints
                                         .requestMatchers(HttpMethod.POST, "/api/v1/admin/**")
                                         .hasRole("ADMIN")
@@ -75,7 +86,9 @@ public class SecurityConfig {
                                         .anyRequest()
                                         .authenticated())
                 .addFilterBefore(
-                        jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                        jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Needs the authenticated user to pick the bucket and quota
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
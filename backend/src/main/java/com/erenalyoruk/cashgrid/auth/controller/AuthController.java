@@ -1,12 +1,13 @@
 package com.erenalyoruk.cashgrid.auth.controller;
 
 import com.erenalyoruk.cashgrid.auth.dto.*;
+import com.erenalyoruk.cashgrid.auth.security.AuthenticatedUser;
 import com.erenalyoruk.cashgrid.auth.service.AuthService;
 import jakarta.validation.Valid;
-import java.security.Principal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -32,41 +33,43 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> me(Principal principal) {
+    public ResponseEntity<UserResponse> me(@AuthenticationPrincipal AuthenticatedUser principal) {
         if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        return ResponseEntity.ok(authService.me(principal.getName()));
+        return ResponseEntity.ok(authService.me(principal));
     }
 
     @PatchMapping("/me/username")
     public ResponseEntity<AuthResponse> updateUsername(
-            Principal principal, @Valid @RequestBody UpdateUsernameRequest request) {
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody UpdateUsernameRequest request) {
 
         if (principal == null) {
 
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        return ResponseEntity.ok(authService.updateUsername(principal.getName(), request));
+        return ResponseEntity.ok(authService.updateUsername(principal, request));
     }
 
     @PatchMapping("/me/email")
     public ResponseEntity<UserResponse> updateEmail(
-            Principal principal, @Valid @RequestBody UpdateEmailRequest request) {
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody UpdateEmailRequest request) {
         if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        return ResponseEntity.ok(authService.updateEmail(principal.getName(), request));
+        return ResponseEntity.ok(authService.updateEmail(principal, request));
     }
 
     @PutMapping("/me/password")
-    public ResponseEntity<Void> updatePassword(
-            Principal principal, @Valid @RequestBody UpdatePasswordRequest request) {
+    public ResponseEntity<AuthResponse> updatePassword(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody UpdatePasswordRequest request) {
         if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        authService.updatePassword(principal.getName(), request);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(authService.updatePassword(principal, request));
     }
 }
@@ -0,0 +1,5 @@
+package com.erenalyoruk.cashgrid.auth.event;
+
+import java.util.UUID;
+
+public record UserChangedEvent(UUID userId) {}
@@ -0,0 +1,39 @@
+package com.erenalyoruk.cashgrid.auth.security;
+
+import com.erenalyoruk.cashgrid.auth.model.Role;
+import com.erenalyoruk.cashgrid.auth.model.User;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// Principal set by JwtAuthenticationFilter, so services get the caller's id and role without
+// looking the user up again
+public record AuthenticatedUser(UUID id, String username, Role role, int tokenVersion)
+        implements Principal {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(
+                user.getId(), user.getUsername(), user.getRole(), user.getTokenVersion());
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    // Unmanaged User with just the principal's fields, for JDBC inserts and response mapping
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .role(role)
+                .tokenVersion(tokenVersion)
+                .build();
+    }
+}
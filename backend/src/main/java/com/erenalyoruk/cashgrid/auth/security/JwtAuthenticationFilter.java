@@ -5,10 +5,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -20,6 +18,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -28,22 +27,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = extractToken(request);
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String username = jwtTokenProvider.getUsername(token);
-            String role = jwtTokenProvider.getRole(token);
-
-            List<SimpleGrantedAuthority> authorities =
-                    List.of(new SimpleGrantedAuthority("ROLE_" + role));
+        if (token != null) {
+            // Tokens without a user id, for a disabled user or from an older version stay
+            // unauthenticated
+            jwtTokenProvider
+                    .verify(token)
+                    .filter(verified -> verified.userId() != null)
+                    .flatMap(
+                            verified ->
+                                    principalCache.resolve(
+                                            verified.userId(), verified.tokenVersion()))
+                    .ifPresent(user -> authenticate(request, user));
+        }
 
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
+        filterChain.doFilter(request, response);
+    }
 
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    private void authenticate(HttpServletRequest request, AuthenticatedUser user) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, user.authorities());
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-        }
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-        filterChain.doFilter(request, response);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
     private String extractToken(HttpServletRequest request) {
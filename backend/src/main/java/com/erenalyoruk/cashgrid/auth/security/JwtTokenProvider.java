@@ -1,10 +1,21 @@
 package com.erenalyoruk.cashgrid.auth.security;
 
 import com.erenalyoruk.cashgrid.auth.config.JwtProperties;
+import com.erenalyoruk.cashgrid.auth.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -19,52 +30,92 @@ public class JwtTokenProvider {
 
     private final JwtProperties jwtProperties;
     private SecretKey key;
+    private JwtParser parser;
+
+    // Verified claims keyed by the SHA-256 of the token, so repeat requests with the same token
+    // skip signature verification and JSON decoding until it expires. Lookups take no lock.
+    private Cache<ByteBuffer, VerifiedToken> verified;
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
-    }
+        this.parser = Jwts.parser().verifyWith(key).build();
 
-    public String generateAccessToken(String username, String role) {
-        return buildToken(username, role, jwtProperties.getAccessTokenExpiration());
+        // Hits are still checked against the token's own expiry; the write expiry only clears
+        // out tokens that stop being used
+        this.verified =
+                Caffeine.newBuilder()
+                        .maximumSize(jwtProperties.getVerifiedTokenCacheSize())
+                        .expireAfterWrite(
+                                Duration.ofMillis(jwtProperties.getAccessTokenExpiration()))
+                        .build();
     }
 
-    public String generateRefreshToken(String username, String role) {
-        return buildToken(username, role, jwtProperties.getRefreshTokenExpiration());
+    public String generateAccessToken(User user) {
+        return buildToken(user, jwtProperties.getAccessTokenExpiration());
     }
 
-    public String getUsername(String token) {
-        return parseClaims(token).getSubject();
+    public String generateRefreshToken(User user) {
+        return buildToken(user, jwtProperties.getRefreshTokenExpiration());
     }
 
-    public String getRole(String token) {
-        return parseClaims(token).get("role", String.class);
-    }
+    // Empty for tokens that are malformed, wrongly signed or expired
+    public Optional<VerifiedToken> verify(String token) {
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verified.getIfPresent(digest);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached);
+            }
+            verified.invalidate(digest);
+        }
 
-    public boolean validateToken(String token) {
+        VerifiedToken parsed;
         try {
-            parseClaims(token);
-            return true;
+            parsed = toVerifiedToken(parser.parseSignedClaims(token).getPayload());
         } catch (JwtException | IllegalArgumentException ex) {
             log.warn("Invalid JWT token: {}", ex.getMessage());
-            return false;
+            return Optional.empty();
         }
+
+        verified.put(digest, parsed);
+        return Optional.of(parsed);
     }
 
-    private String buildToken(String username, String role, long expirationMs) {
+    private String buildToken(User user, long expirationMs) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
-                .subject(username)
-                .claim("role", role)
+                .subject(user.getUsername())
+                .claim("uid", user.getId().toString())
+                .claim("ver", user.getTokenVersion())
+                .claim("role", user.getRole().name())
                 .issuedAt(now)
                 .expiration(expiry)
                 .signWith(key)
                 .compact();
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        String userId = claims.get("uid", String.class);
+        Integer version = claims.get("ver", Integer.class);
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedToken(
+                userId != null ? UUID.fromString(userId) : null,
+                claims.getSubject(),
+                claims.get("role", String.class),
+                version != null ? version : 0,
+                expiration != null ? expiration.toInstant() : Instant.MAX);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
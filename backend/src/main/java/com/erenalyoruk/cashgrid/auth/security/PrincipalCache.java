@@ -0,0 +1,81 @@
+package com.erenalyoruk.cashgrid.auth.security;
+
+import com.erenalyoruk.cashgrid.auth.config.JwtProperties;
+import com.erenalyoruk.cashgrid.auth.event.UserChangedEvent;
+import com.erenalyoruk.cashgrid.auth.model.User;
+import com.erenalyoruk.cashgrid.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Users behind recently seen tokens, keyed by the id in the token. Entries are dropped past
+// principalCacheSize, and reloaded after principalCacheTtlMs so changes made on other nodes are
+// picked up. Lookups take no lock.
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final JwtProperties jwtProperties;
+
+    // Bumped on every eviction, so a load that raced with one is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    private Cache<UUID, Entry> entries;
+
+    @PostConstruct
+    public void init() {
+        this.entries =
+                Caffeine.newBuilder()
+                        .maximumSize(jwtProperties.getPrincipalCacheSize())
+                        .expireAfterWrite(Duration.ofMillis(jwtProperties.getPrincipalCacheTtlMs()))
+                        .build();
+    }
+
+    // Empty when the user is gone, disabled, or the token predates the user's current version
+    public Optional<AuthenticatedUser> resolve(UUID userId, int tokenVersion) {
+        Entry entry = entries.getIfPresent(userId);
+        if (entry == null) {
+            long generation = evictions.get();
+            entry = userRepository.findById(userId).map(Entry::of).orElse(null);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            // Checked after the put, so an eviction on either side of it drops the entry
+            entries.put(userId, entry);
+            if (evictions.get() != generation) {
+                entries.invalidate(userId);
+            }
+        }
+
+        if (!entry.active() || entry.user().tokenVersion() != tokenVersion) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.user());
+    }
+
+    public void evict(UUID userId) {
+        evictions.incrementAndGet();
+        entries.invalidate(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    private record Entry(AuthenticatedUser user, boolean active) {
+
+        static Entry of(User user) {
+            return new Entry(AuthenticatedUser.of(user), user.getIsActive());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.erenalyoruk.cashgrid.auth.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Claims of a token whose signature and expiry have been checked. userId is null for tokens
+// issued before the user id was embedded.
+public record VerifiedToken(
+        UUID userId, String username, String role, int tokenVersion, Instant expiresAt) {}
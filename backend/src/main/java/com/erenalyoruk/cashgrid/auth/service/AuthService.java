@@ -1,16 +1,21 @@
 package com.erenalyoruk.cashgrid.auth.service;
 
 import com.erenalyoruk.cashgrid.auth.dto.*;
+import com.erenalyoruk.cashgrid.auth.event.UserChangedEvent;
 import com.erenalyoruk.cashgrid.auth.model.Role;
 import com.erenalyoruk.cashgrid.auth.model.User;
 import com.erenalyoruk.cashgrid.auth.repository.UserRepository;
+import com.erenalyoruk.cashgrid.auth.security.AuthenticatedUser;
 import com.erenalyoruk.cashgrid.auth.security.JwtTokenProvider;
+import com.erenalyoruk.cashgrid.auth.security.VerifiedToken;
 import com.erenalyoruk.cashgrid.common.exception.BusinessException;
 import com.erenalyoruk.cashgrid.common.exception.ConflictException;
 import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,6 +32,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -81,32 +87,47 @@ public class AuthService {
     }
 
     public AuthResponse refresh(RefreshRequest request) {
-        String token = request.refreshToken();
+        VerifiedToken token =
+                jwtTokenProvider
+                        .verify(request.refreshToken())
+                        .orElseThrow(
+                                () ->
+                                        new BusinessException(
+                                                "INVALID_TOKEN",
+                                                "Invalid or expired refresh token"));
+
+        UUID userId = token.userId();
+        User user;
+        if (userId != null) {
+            user =
+                    userRepository
+                            .findById(userId)
+                            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        } else {
+            // Issued before tokens carried the user id
+            String username = token.username();
+            user =
+                    userRepository
+                            .findByUsername(username)
+                            .orElseThrow(
+                                    () ->
+                                            new ResourceNotFoundException(
+                                                    "User", "username", username));
+        }
 
-        if (!jwtTokenProvider.validateToken(token)) {
+        if (!user.getIsActive()
+                || user.getTokenVersion() != token.tokenVersion()) {
             throw new BusinessException("INVALID_TOKEN", "Invalid or expired refresh token");
         }
 
-        String username = jwtTokenProvider.getUsername(token);
-
-        User user =
-                userRepository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () -> new ResourceNotFoundException("User", "username", username));
-
-        log.info("Token refreshed for user: {}", username);
+        log.info("Token refreshed for user: {}", user.getUsername());
 
         return buildAuthResponse(user);
     }
 
     @Transactional(readOnly = true)
-    public UserResponse me(String username) {
-        User user =
-                userRepository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () -> new ResourceNotFoundException("User", "username", username));
+    public UserResponse me(AuthenticatedUser principal) {
+        User user = findUser(principal);
 
         return UserResponse.builder()
                 .id(user.getId())
@@ -120,43 +141,41 @@ public class AuthService {
     }
 
     @Transactional
-    public AuthResponse updateUsername(String currentUsername, UpdateUsernameRequest request) {
+    public AuthResponse updateUsername(
+            AuthenticatedUser principal, UpdateUsernameRequest request) {
         if (userRepository.existsByUsername(request.newUsername())) {
             throw new ConflictException("USERNAME_TAKEN", "Username is already taken");
         }
 
-        User user =
-                userRepository
-                        .findByUsername(currentUsername)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "User", "username", currentUsername));
+        User user = findUser(principal);
 
+        // Tokens naming the old username stop working; the response carries fresh ones
         user.setUsername(request.newUsername());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
-        log.info("User {} updated their username to {}", currentUsername, request.newUsername());
+        log.info(
+                "User {} updated their username to {}",
+                principal.username(),
+                request.newUsername());
 
         return buildAuthResponse(user);
     }
 
     @Transactional
-    public UserResponse updateEmail(String username, UpdateEmailRequest request) {
+    public UserResponse updateEmail(AuthenticatedUser principal, UpdateEmailRequest request) {
         if (userRepository.existsByEmail(request.newEmail())) {
             throw new ConflictException("EMAIL_TAKEN", "Email is already taken");
         }
 
-        User user =
-                userRepository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () -> new ResourceNotFoundException("User", "username", username));
+        User user = findUser(principal);
 
         user.setEmail(request.newEmail());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
-        log.info("User {} updated their email to {}", username, request.newEmail());
+        log.info("User {} updated their email to {}", user.getUsername(), request.newEmail());
 
         return UserResponse.builder()
                 .id(user.getId())
@@ -170,28 +189,34 @@ public class AuthService {
     }
 
     @Transactional
-    public void updatePassword(String username, UpdatePasswordRequest request) {
-        User user =
-                userRepository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () -> new ResourceNotFoundException("User", "username", username));
+    public AuthResponse updatePassword(
+            AuthenticatedUser principal, UpdatePasswordRequest request) {
+        User user = findUser(principal);
 
         if (!passwordEncoder.matches(request.currentPassword(), user.getPasswordHash())) {
             throw new BusinessException("INVALID_PASSWORD", "Current password does not match");
         }
 
+        // Every token issued before the change stops working; the response carries fresh ones
         user.setPasswordHash(passwordEncoder.encode(request.newPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+
+        log.info("User {} successfully updated their password", user.getUsername());
+
+        return buildAuthResponse(user);
+    }
 
-        log.info("User {} successfully updated their password", username);
+    private User findUser(AuthenticatedUser principal) {
+        return userRepository
+                .findById(principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", principal.id()));
     }
 
     private AuthResponse buildAuthResponse(User user) {
-        String accessToken =
-                jwtTokenProvider.generateAccessToken(user.getUsername(), user.getRole().name());
-        String refreshToken =
-                jwtTokenProvider.generateRefreshToken(user.getUsername(), user.getRole().name());
+        String accessToken = jwtTokenProvider.generateAccessToken(user);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user);
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
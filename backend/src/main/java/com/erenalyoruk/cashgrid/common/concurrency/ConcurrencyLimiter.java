@@ -0,0 +1,80 @@
+package com.erenalyoruk.cashgrid.common.concurrency;
+
+import com.erenalyoruk.cashgrid.common.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+
+// AIMD limit on in-flight requests. A request that fails or takes longer than the target
+// latency shrinks the limit by backoffRatio, at most once per target latency window so a burst
+// of slow requests from one overload counts once; a fast request made while at least half the
+// limit is in use grows it by 1/limit, so roughly one slot per full round of requests.
+public class ConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final Counter rejections;
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private long lastDecreaseNanos;
+
+    public ConcurrencyLimiter(
+            String name, ConcurrencyLimitProperties.Limit config, MeterRegistry registry) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(config.getTargetLatencyMs());
+        this.backoffRatio = config.getBackoffRatio();
+        this.limit = Math.clamp(config.getInitialLimit(), minLimit, maxLimit);
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+
+        Gauge.builder("concurrency.limit", this, ConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("limiter", name)
+                .register(registry);
+        Gauge.builder("concurrency.inflight", this, ConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("limiter", name)
+                .register(registry);
+        this.rejections =
+                Counter.builder("concurrency.rejections")
+                        .description("Requests shed because the concurrency limit was reached")
+                        .tag("limiter", name)
+                        .register(registry);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejections.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        int used = inFlight;
+        inFlight--;
+
+        if (failed || latencyNanos > targetLatencyNanos) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (used * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+}
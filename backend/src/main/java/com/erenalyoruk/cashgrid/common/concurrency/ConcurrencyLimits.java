@@ -0,0 +1,40 @@
+package com.erenalyoruk.cashgrid.common.concurrency;
+
+import com.erenalyoruk.cashgrid.common.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Reads and writes are limited separately, so a slow write path cannot starve lookups. Batch
+// imports and bulk approvals are slow by design; they get a limiter and latency target of their
+// own so they neither shrink the write limit nor take its slots.
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimits {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private ConcurrencyLimiter read;
+    private ConcurrencyLimiter write;
+    private ConcurrencyLimiter bulk;
+
+    @PostConstruct
+    public void init() {
+        this.read = new ConcurrencyLimiter("read", properties.getRead(), meterRegistry);
+        this.write = new ConcurrencyLimiter("write", properties.getWrite(), meterRegistry);
+        this.bulk = new ConcurrencyLimiter("bulk", properties.getBulk(), meterRegistry);
+    }
+
+    public ConcurrencyLimiter forRequest(String method, String path) {
+        return switch (method) {
+            case "GET", "HEAD", "OPTIONS" -> read;
+            default -> isBulk(path) ? bulk : write;
+        };
+    }
+
+    private static boolean isBulk(String path) {
+        return path.equals("/api/v1/payments/batch") || path.startsWith("/api/v1/payments/bulk-");
+    }
+}
@@ -0,0 +1,41 @@
+package com.erenalyoruk.cashgrid.common.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int retryAfterSeconds = 1;
+
+    private Limit read = new Limit(40, 4, 200, 250);
+    private Limit write = new Limit(20, 2, 40, 500);
+    private Limit bulk = new Limit(4, 1, 8, 30_000);
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // Requests slower than this count as a sign of overload
+        private long targetLatencyMs;
+        private double backoffRatio = 0.9;
+
+        public Limit() {}
+
+        Limit(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.targetLatencyMs = targetLatencyMs;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.erenalyoruk.cashgrid.common.config;
 
+import com.erenalyoruk.cashgrid.auth.model.Role;
+import com.erenalyoruk.cashgrid.common.ratelimit.RateLimitMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -14,8 +20,59 @@ public class RateLimitProperties {
     private int defaultCapacity = 60;
     private int defaultRefillTokens = 60;
     private int defaultRefillSeconds = 60;
+    private RateLimitMode defaultMode = RateLimitMode.LOCAL;
+    // Per-role quotas for authenticated callers of the default policy
+    private Map<Role, Quota> defaultRoles = new HashMap<>();
 
     private int authCapacity = 10;
     private int authRefillTokens = 10;
     private int authRefillSeconds = 60;
+    private RateLimitMode authMode = RateLimitMode.LOCAL;
+
+    // Buckets kept per policy; the least likely clients to return are dropped beyond this
+    private int maxBuckets = 100000;
+    // Buckets untouched for this long are dropped (a full bucket would be recreated as is)
+    private long idleEvictionSeconds = 600;
+
+    // Distributed buckets hash client keys with this salt, so it must match on every node
+    private String keySalt = "cashgrid";
+    // Tokens a node takes from a distributed bucket per database round trip
+    private int defaultLeaseSize = 5;
+
+    // Route-specific limits, checked in order before the auth and default limits
+    private List<Policy> policies = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        private String name;
+        // Any method when unset
+        private String method;
+        // Ant-style pattern, e.g. /api/v1/payments/**
+        private String path;
+        private int capacity;
+        private int refillTokens;
+        private int refillSeconds;
+        private RateLimitMode mode = RateLimitMode.LOCAL;
+        // Falls back to defaultLeaseSize when unset
+        private Integer leaseSize;
+        // Per-role quotas for authenticated callers; other callers get the limit above
+        private Map<Role, Quota> roles = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Quota {
+
+        private int capacity;
+        private int refillTokens;
+        private int refillSeconds;
+    }
+
+    public boolean usesMode(RateLimitMode mode) {
+        return defaultMode == mode
+                || authMode == mode
+                || policies.stream().anyMatch(policy -> policy.getMode() == mode);
+    }
 }
@@ -0,0 +1,41 @@
+package com.erenalyoruk.cashgrid.common.dto;
+
+import com.erenalyoruk.cashgrid.common.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position in a (created_at DESC, id DESC) listing, passed to clients as an opaque token
+public record PageCursor(Instant createdAt, UUID id) {
+
+    // Sorts before every real row, so "after START" is the first page
+    public static final PageCursor START =
+            new PageCursor(
+                    Instant.parse("9999-12-31T00:00:00Z"),
+                    UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A missing or blank token means the first page
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new PageCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("INVALID_CURSOR", "Invalid page cursor");
+        }
+    }
+}
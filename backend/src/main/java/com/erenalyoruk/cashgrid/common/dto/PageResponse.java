@@ -1,8 +1,19 @@
 package com.erenalyoruk.cashgrid.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import lombok.Builder;
 
+// Totals are omitted when the listing ran without a COUNT; nextCursor is set for keyset listings.
+// estimatedTotal is the planner's guess, for listings that opt into it instead of a COUNT.
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PageResponse<T>(
-        List<T> content, int page, int size, long totalElements, int totalPages, boolean last) {}
+        List<T> content,
+        int page,
+        int size,
+        Long totalElements,
+        Integer totalPages,
+        boolean last,
+        String nextCursor,
+        Long estimatedTotal) {}
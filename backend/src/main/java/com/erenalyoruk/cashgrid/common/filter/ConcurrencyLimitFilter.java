@@ -0,0 +1,64 @@
+package com.erenalyoruk.cashgrid.common.filter;
+
+import com.erenalyoruk.cashgrid.common.concurrency.ConcurrencyLimiter;
+import com.erenalyoruk.cashgrid.common.concurrency.ConcurrencyLimits;
+import com.erenalyoruk.cashgrid.common.config.ConcurrencyLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Sheds payment and account requests with a 503 once the adaptive in-flight limit is reached,
+// instead of letting them queue on the connection pool. Runs after the security chain, so only
+// authenticated requests hold a slot.
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimits limits;
+    private final ConcurrencyLimitProperties properties;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ConcurrencyLimiter limiter =
+                limits.forRequest(request.getMethod(), request.getRequestURI());
+        if (!limiter.tryAcquire()) {
+            response.setHeader("Retry-After", String.valueOf(properties.getRetryAfterSeconds()));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter()
+                    .write(
+                            "{\"status\":503,"
+                                    + "\"errorCode\":\"SERVICE_OVERLOADED\",\"message\":\"Too many"
+                                    + " requests in progress. Please try again later.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/v1/payments") && !path.startsWith("/api/v1/accounts");
+    }
+}
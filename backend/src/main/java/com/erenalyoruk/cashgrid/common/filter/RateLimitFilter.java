@@ -1,51 +1,159 @@
 package com.erenalyoruk.cashgrid.common.filter;
 
+import com.erenalyoruk.cashgrid.auth.model.Role;
+import com.erenalyoruk.cashgrid.auth.security.AuthenticatedUser;
 import com.erenalyoruk.cashgrid.common.config.RateLimitProperties;
+import com.erenalyoruk.cashgrid.common.ratelimit.BucketStore;
+import com.erenalyoruk.cashgrid.common.ratelimit.LeasedTokenBucket;
+import com.erenalyoruk.cashgrid.common.ratelimit.LocalTokenBucket;
+import com.erenalyoruk.cashgrid.common.ratelimit.RateLimitBucketRepository;
+import com.erenalyoruk.cashgrid.common.ratelimit.RateLimitMode;
+import com.erenalyoruk.cashgrid.common.ratelimit.RateLimitPolicy;
+import com.erenalyoruk.cashgrid.common.ratelimit.RateLimitProbe;
+import com.erenalyoruk.cashgrid.common.ratelimit.TokenBucket;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
+import java.util.function.LongFunction;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.annotation.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+// Runs inside the security filter chain right after JwtAuthenticationFilter (see SecurityConfig),
+// so authenticated callers are keyed by their user id and get their role's quota, while anonymous
+// callers are keyed by IP.
 @Component
-@Order(1)
 @RequiredArgsConstructor
 public class RateLimitFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long USER_KEYS = 0x5bd1e9955bd1e995L;
+    private static final long IP_KEYS = 0x27d4eb2f165667c5L;
+
     private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RateLimitBucketRepository bucketRepository;
+
+    private long keySeed;
+    private List<RateLimitPolicy> policies;
+
+    @PostConstruct
+    public void init() {
+        // Derived from configuration rather than random, so every node computes the same keys
+        byte[] salt = properties.getKeySalt().getBytes(StandardCharsets.UTF_8);
+        long seed = FNV_OFFSET_BASIS;
+        for (byte b : salt) {
+            seed ^= b;
+            seed *= FNV_PRIME;
+        }
+        this.keySeed = seed;
+
+        List<RateLimitPolicy> resolved = new ArrayList<>();
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            RateLimitProperties.Quota quota = new RateLimitProperties.Quota();
+            quota.setCapacity(policy.getCapacity());
+            quota.setRefillTokens(policy.getRefillTokens());
+            quota.setRefillSeconds(policy.getRefillSeconds());
+
+            int leaseSize =
+                    policy.getLeaseSize() != null
+                            ? policy.getLeaseSize()
+                            : properties.getDefaultLeaseSize();
+            resolved.add(
+                    createPolicy(
+                            policy.getName(),
+                            policy.getMethod(),
+                            policy.getPath(),
+                            quota,
+                            policy.getRoles(),
+                            policy.getMode(),
+                            leaseSize));
+        }
 
-    private final Map<String, Bucket> defaultBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> authBuckets = new ConcurrentHashMap<>();
+        RateLimitProperties.Quota auth = new RateLimitProperties.Quota();
+        auth.setCapacity(properties.getAuthCapacity());
+        auth.setRefillTokens(properties.getAuthRefillTokens());
+        auth.setRefillSeconds(properties.getAuthRefillSeconds());
+        resolved.add(
+                createPolicy(
+                        "auth",
+                        null,
+                        "/api/v1/auth/**",
+                        auth,
+                        Map.of(),
+                        properties.getAuthMode(),
+                        properties.getDefaultLeaseSize()));
+
+        RateLimitProperties.Quota fallback = new RateLimitProperties.Quota();
+        fallback.setCapacity(properties.getDefaultCapacity());
+        fallback.setRefillTokens(properties.getDefaultRefillTokens());
+        fallback.setRefillSeconds(properties.getDefaultRefillSeconds());
+        resolved.add(
+                createPolicy(
+                        "default",
+                        null,
+                        null,
+                        fallback,
+                        properties.getDefaultRoles(),
+                        properties.getDefaultMode(),
+                        properties.getDefaultLeaseSize()));
+
+        this.policies = List.copyOf(resolved);
+    }
 
     @Override
     protected void doFilterInternal(
             HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String key = resolveKey(request);
-        boolean isAuthPath = request.getRequestURI().startsWith("/api/v1/auth/");
+        RateLimitPolicy policy = resolvePolicy(request);
 
-        Bucket bucket = isAuthPath ? resolveAuthBucket(key) : resolveDefaultBucket(key);
+        // Set by JwtAuthenticationFilter from the verified token; absent for anonymous calls
+        AuthenticatedUser user = currentUser();
+        RateLimitPolicy.Tier tier = policy.tierFor(user != null ? user.role() : null);
+        long key = user != null ? userKey(user.id()) : ipKey(request);
 
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        RateLimitProbe probe;
+        try {
+            probe = tier.bucketFor(key).tryConsume();
+        } catch (DataAccessException e) {
+            // A shared bucket we cannot reach should not take the API down with it
+            log.warn(
+                    "Rate-limit policy {} unavailable, letting request through",
+                    policy.getName(),
+                    e);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        response.setHeader("X-Rate-Limit-Remaining", String.valueOf(probe.getRemainingTokens()));
+        response.setHeader("X-Rate-Limit-Limit", String.valueOf(tier.capacity()));
+        response.setHeader("X-Rate-Limit-Remaining", String.valueOf(probe.remaining()));
 
-        if (!probe.isConsumed()) {
-            long retryAfterSeconds =
-                    Duration.ofNanos(probe.getNanosToWaitForRefill()).getSeconds() + 1;
+        if (!probe.consumed()) {
+            long retryAfterSeconds = Duration.ofNanos(probe.nanosToWait()).getSeconds() + 1;
             response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -69,51 +177,128 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 || path.startsWith("/v3/api-docs");
     }
 
-    private String resolveKey(HttpServletRequest request) {
-        // Use authenticated username if available, otherwise fall back to IP
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            // Use the token hash as key to avoid parsing JWT here
-            return "token:" + authHeader.hashCode();
+    private RateLimitPolicy resolvePolicy(HttpServletRequest request) {
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(request)) {
+                return policy;
+            }
+        }
+        // The default policy matches everything
+        throw new IllegalStateException("No rate-limit policy for " + request.getRequestURI());
+    }
+
+    private AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
+
+    // Stable across token refreshes, unlike a hash of the token itself
+    private long userKey(UUID userId) {
+        long hash = keySeed ^ USER_KEYS;
+        hash = mix(hash, userId.getMostSignificantBits());
+        return mix(hash, userId.getLeastSignificantBits());
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
         }
-        return "ip:" + getClientIp(request);
+        return hash;
     }
 
-    private String getClientIp(HttpServletRequest request) {
+    // Hashed over the header in place, so no key string is built per request
+    private long ipKey(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isBlank()) {
-            return xForwardedFor.split(",")[0].trim();
+            int end = xForwardedFor.indexOf(',');
+            return hash(IP_KEYS, xForwardedFor, 0, end >= 0 ? end : xForwardedFor.length());
         }
-        return request.getRemoteAddr();
+
+        String remoteAddr = request.getRemoteAddr();
+        return hash(IP_KEYS, remoteAddr, 0, remoteAddr.length());
     }
 
-    private Bucket resolveDefaultBucket(String key) {
-        return defaultBuckets.computeIfAbsent(
-                key,
-                k ->
-                        createBucket(
-                                properties.getDefaultCapacity(),
-                                properties.getDefaultRefillTokens(),
-                                properties.getDefaultRefillSeconds()));
+    // FNV-1a over the trimmed range
+    private long hash(long kind, String value, int start, int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+
+        long hash = keySeed ^ kind;
+        for (int i = start; i < end; i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
     }
 
-    private Bucket resolveAuthBucket(String key) {
-        return authBuckets.computeIfAbsent(
-                key,
-                k ->
-                        createBucket(
-                                properties.getAuthCapacity(),
-                                properties.getAuthRefillTokens(),
-                                properties.getAuthRefillSeconds()));
+    private RateLimitPolicy createPolicy(
+            String name,
+            String method,
+            String path,
+            RateLimitProperties.Quota quota,
+            Map<Role, RateLimitProperties.Quota> roleQuotas,
+            RateLimitMode mode,
+            int leaseSize) {
+        Map<Role, RateLimitPolicy.Tier> roleTiers = new EnumMap<>(Role.class);
+        roleQuotas.forEach(
+                (role, roleQuota) ->
+                        roleTiers.put(
+                                role,
+                                createTier(name, role.name(), roleQuota, mode, leaseSize)));
+
+        return new RateLimitPolicy(
+                name, method, path, createTier(name, "any", quota, mode, leaseSize), roleTiers);
     }
 
-    private Bucket createBucket(int capacity, int refillTokens, int refillSeconds) {
-        return Bucket.builder()
-                .addLimit(
-                        Bandwidth.builder()
-                                .capacity(capacity)
-                                .refillGreedy(refillTokens, Duration.ofSeconds(refillSeconds))
-                                .build())
-                .build();
+    private RateLimitPolicy.Tier createTier(
+            String policy,
+            String tier,
+            RateLimitProperties.Quota quota,
+            RateLimitMode mode,
+            int leaseSize) {
+        BucketStore buckets =
+                new BucketStore(
+                        policy,
+                        tier,
+                        properties.getMaxBuckets(),
+                        Duration.ofSeconds(properties.getIdleEvictionSeconds()),
+                        meterRegistry);
+
+        int capacity = quota.getCapacity();
+        LongFunction<TokenBucket> factory;
+        if (mode == RateLimitMode.DISTRIBUTED) {
+            // Tiers of one policy keep separate rows
+            String bucketName = tier.equals("any") ? policy : policy + ":" + tier;
+            double tokensPerSecond = (double) quota.getRefillTokens() / quota.getRefillSeconds();
+            factory =
+                    key ->
+                            new LeasedTokenBucket(
+                                    bucketRepository,
+                                    bucketName,
+                                    key,
+                                    capacity,
+                                    tokensPerSecond,
+                                    leaseSize);
+        } else {
+            Bandwidth bandwidth =
+                    Bandwidth.builder()
+                            .capacity(capacity)
+                            .refillGreedy(
+                                    quota.getRefillTokens(),
+                                    Duration.ofSeconds(quota.getRefillSeconds()))
+                            .build();
+            factory = key -> new LocalTokenBucket(Bucket.builder().addLimit(bandwidth).build());
+        }
+
+        return new RateLimitPolicy.Tier(capacity, buckets, factory);
     }
 }
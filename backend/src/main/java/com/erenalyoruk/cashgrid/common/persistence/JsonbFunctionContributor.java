@@ -0,0 +1,23 @@
+package com.erenalyoruk.cashgrid.common.persistence;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+// jsonb_contains(document, json) renders the @> operator, which GIN indexes on the column can
+// serve; Postgres' own jsonb_contains() function cannot use them.
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions
+                .getFunctionRegistry()
+                .registerPattern(
+                        "jsonb_contains",
+                        "(?1 @> cast(?2 as jsonb))",
+                        functionContributions
+                                .getTypeConfiguration()
+                                .getBasicTypeRegistry()
+                                .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,19 @@
+package com.erenalyoruk.cashgrid.common.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Postgres settings that last until the current transaction ends
+@Component
+@RequiredArgsConstructor
+public class TransactionSettings {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Lock waits longer than this fail with lock_not_available; 0 waits indefinitely
+    public void lockTimeout(long millis) {
+        jdbcTemplate.queryForObject(
+                "SELECT set_config('lock_timeout', ?, true)", String.class, millis + "ms");
+    }
+}
@@ -0,0 +1,66 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.function.LongFunction;
+
+// Buckets keyed by a 64-bit client hash. Clients idle past idleTimeout are dropped, and past
+// maxBuckets the cache drops the clients it expects least to return. Lookups take no lock.
+public class BucketStore {
+
+    private final Cache<Long, TokenBucket> buckets;
+    private final Counter idleEvictions;
+    private final Counter sizeEvictions;
+
+    public BucketStore(
+            String policy,
+            String tier,
+            int maxBuckets,
+            Duration idleTimeout,
+            MeterRegistry registry) {
+        this.idleEvictions =
+                Counter.builder("ratelimit.bucket.evictions")
+                        .tag("policy", policy)
+                        .tag("tier", tier)
+                        .tag("cause", "idle")
+                        .register(registry);
+        this.sizeEvictions =
+                Counter.builder("ratelimit.bucket.evictions")
+                        .tag("policy", policy)
+                        .tag("tier", tier)
+                        .tag("cause", "size")
+                        .register(registry);
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(maxBuckets)
+                        .expireAfterAccess(idleTimeout)
+                        .removalListener(
+                                (Long key, TokenBucket bucket, RemovalCause cause) -> {
+                                    if (cause == RemovalCause.EXPIRED) {
+                                        idleEvictions.increment();
+                                    } else if (cause == RemovalCause.SIZE) {
+                                        sizeEvictions.increment();
+                                    }
+                                })
+                        .build();
+
+        Gauge.builder("ratelimit.buckets", this, BucketStore::size)
+                .description("Rate-limit buckets currently held")
+                .tag("policy", policy)
+                .tag("tier", tier)
+                .register(registry);
+    }
+
+    public TokenBucket get(long key, LongFunction<TokenBucket> factory) {
+        return buckets.get(key, factory::apply);
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
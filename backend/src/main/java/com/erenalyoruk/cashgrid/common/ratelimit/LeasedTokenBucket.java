@@ -0,0 +1,57 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+// A client's share of a bucket stored in PostgreSQL. Tokens are taken from the shared row
+// leaseSize at a time and spent locally, so most requests never reach the database. A lease
+// lapses after the time the bucket needs to refill it, which bounds how far a client spread
+// over several nodes can overshoot; unspent tokens are simply lost.
+public class LeasedTokenBucket implements TokenBucket {
+
+    private final RateLimitBucketRepository repository;
+    private final String policy;
+    private final long clientKey;
+    private final int capacity;
+    private final double tokensPerSecond;
+    private final int leaseSize;
+    private final long leaseNanos;
+
+    private long leased;
+    private long leaseExpiresAt;
+    private long sharedRemaining;
+
+    public LeasedTokenBucket(
+            RateLimitBucketRepository repository,
+            String policy,
+            long clientKey,
+            int capacity,
+            double tokensPerSecond,
+            int leaseSize) {
+        this.repository = repository;
+        this.policy = policy;
+        this.clientKey = clientKey;
+        this.capacity = capacity;
+        this.tokensPerSecond = tokensPerSecond;
+        this.leaseSize = Math.max(1, Math.min(leaseSize, capacity));
+        this.leaseNanos = (long) (this.leaseSize / tokensPerSecond * 1_000_000_000L);
+    }
+
+    @Override
+    public synchronized RateLimitProbe tryConsume() {
+        long now = System.nanoTime();
+        if (leased == 0 || now - leaseExpiresAt >= 0) {
+            RateLimitBucketRepository.Lease lease =
+                    repository.acquire(policy, clientKey, capacity, tokensPerSecond, leaseSize);
+            leased = lease.granted();
+            leaseExpiresAt = now + leaseNanos;
+            sharedRemaining = (long) lease.remaining();
+
+            if (leased == 0) {
+                double missing = 1 - lease.remaining();
+                long nanosToWait = (long) Math.ceil(missing / tokensPerSecond * 1_000_000_000L);
+                return new RateLimitProbe(false, 0, nanosToWait);
+            }
+        }
+
+        leased--;
+        return new RateLimitProbe(true, leased + sharedRemaining, 0);
+    }
+}
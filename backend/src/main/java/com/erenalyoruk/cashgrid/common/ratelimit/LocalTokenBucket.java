@@ -0,0 +1,20 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+
+public class LocalTokenBucket implements TokenBucket {
+
+    private final Bucket bucket;
+
+    public LocalTokenBucket(Bucket bucket) {
+        this.bucket = bucket;
+    }
+
+    @Override
+    public RateLimitProbe tryConsume() {
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        return new RateLimitProbe(
+                probe.isConsumed(), probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
+    }
+}
@@ -0,0 +1,71 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+import com.erenalyoruk.cashgrid.common.config.RateLimitProperties;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Deletes shared buckets nobody has touched for idle-eviction-seconds, the database side of
+// BucketStore's idle eviction. Runs on every node; the deletes are idempotent.
+@Component
+@RequiredArgsConstructor
+public class RateLimitBucketPurger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitBucketPurger.class);
+
+    private final RateLimitBucketRepository repository;
+    private final RateLimitProperties properties;
+
+    private volatile boolean running;
+    private Thread purger;
+
+    @Override
+    public synchronized void start() {
+        if (running || !properties.usesMode(RateLimitMode.DISTRIBUTED)) {
+            return;
+        }
+        running = true;
+        purger = Thread.ofVirtual().name("rate-limit-bucket-purger").start(this::purgeLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        purger.interrupt();
+        try {
+            purger.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void purgeLoop() {
+        long idleSeconds = properties.getIdleEvictionSeconds();
+        while (running) {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(idleSeconds));
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                int deleted = repository.deleteIdle(idleSeconds);
+                log.debug("Purged {} idle rate-limit buckets", deleted);
+            } catch (RuntimeException e) {
+                log.warn("Rate-limit bucket purge failed", e);
+            }
+        }
+    }
+}
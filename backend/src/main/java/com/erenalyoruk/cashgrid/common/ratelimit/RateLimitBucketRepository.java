@@ -0,0 +1,62 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class RateLimitBucketRepository {
+
+    // Tokens in the row once refilled for the time since its last update
+    private static final String AVAILABLE =
+            "LEAST(:capacity, b.tokens"
+                    + " + EXTRACT(EPOCH FROM LOCALTIMESTAMP - b.refilled_at) * :rate)";
+
+    private static final String GRANTED = "LEAST(:request, FLOOR(" + AVAILABLE + "))";
+
+    // One round trip: refill, take up to :request whole tokens and report what was taken.
+    // SET expressions all see the old row, so AVAILABLE is the same in both columns.
+    private static final String ACQUIRE =
+            "INSERT INTO rate_limit_buckets AS b "
+                    + "(policy, client_key, tokens, granted, refilled_at) "
+                    + "VALUES (:policy, :clientKey, :capacity - LEAST(:request, :capacity), "
+                    + "LEAST(:request, :capacity), LOCALTIMESTAMP) "
+                    + "ON CONFLICT (policy, client_key) DO UPDATE SET "
+                    + "granted = "
+                    + GRANTED
+                    + ", tokens = "
+                    + AVAILABLE
+                    + " - "
+                    + GRANTED
+                    + ", refilled_at = LOCALTIMESTAMP "
+                    + "RETURNING granted, tokens";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Lease acquire(
+            String policy, long clientKey, int capacity, double tokensPerSecond, int request) {
+        return namedParameterJdbcTemplate.queryForObject(
+                ACQUIRE,
+                Map.of(
+                        "policy", policy,
+                        "clientKey", clientKey,
+                        "capacity", capacity,
+                        "rate", tokensPerSecond,
+                        "request", request),
+                (rs, rowNum) -> new Lease(rs.getInt("granted"), rs.getDouble("tokens")));
+    }
+
+    // Rows idle this long have refilled and behave like a missing row
+    public int deleteIdle(long idleSeconds) {
+        return jdbcTemplate.update(
+                "DELETE FROM rate_limit_buckets "
+                        + "WHERE refilled_at < LOCALTIMESTAMP - make_interval(secs => ?)",
+                (double) idleSeconds);
+    }
+
+    public record Lease(int granted, double remaining) {}
+}
@@ -0,0 +1,8 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+public enum RateLimitMode {
+    // Buckets held in this node's memory
+    LOCAL,
+    // Bucket state shared by every node through PostgreSQL
+    DISTRIBUTED
+}
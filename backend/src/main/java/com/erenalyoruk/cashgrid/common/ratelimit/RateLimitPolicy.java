@@ -0,0 +1,56 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+import com.erenalyoruk.cashgrid.auth.model.Role;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.function.LongFunction;
+import org.springframework.util.AntPathMatcher;
+
+// One route's limit and the buckets of the clients calling it. Authenticated callers whose role
+// has its own quota get a separate tier; everyone else shares the policy's base tier.
+public class RateLimitPolicy {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final String name;
+    private final String method;
+    private final String pathPattern;
+    private final Tier baseTier;
+    private final Map<Role, Tier> roleTiers;
+
+    public RateLimitPolicy(
+            String name,
+            String method,
+            String pathPattern,
+            Tier baseTier,
+            Map<Role, Tier> roleTiers) {
+        this.name = name;
+        this.method = method;
+        this.pathPattern = pathPattern;
+        this.baseTier = baseTier;
+        this.roleTiers = Map.copyOf(roleTiers);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+            return false;
+        }
+        return pathPattern == null || PATH_MATCHER.match(pathPattern, request.getRequestURI());
+    }
+
+    // role is null for anonymous callers
+    public Tier tierFor(Role role) {
+        return role != null ? roleTiers.getOrDefault(role, baseTier) : baseTier;
+    }
+
+    public record Tier(int capacity, BucketStore buckets, LongFunction<TokenBucket> factory) {
+
+        public TokenBucket bucketFor(long clientKey) {
+            return buckets.get(clientKey, factory);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+public record RateLimitProbe(boolean consumed, long remaining, long nanosToWait) {}
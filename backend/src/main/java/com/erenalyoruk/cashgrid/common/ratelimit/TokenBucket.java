@@ -0,0 +1,6 @@
+package com.erenalyoruk.cashgrid.common.ratelimit;
+
+public interface TokenBucket {
+
+    RateLimitProbe tryConsume();
+}
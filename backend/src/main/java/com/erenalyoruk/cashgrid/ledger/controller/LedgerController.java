@@ -0,0 +1,30 @@
+package com.erenalyoruk.cashgrid.ledger.controller;
+
+import com.erenalyoruk.cashgrid.common.dto.PageResponse;
+import com.erenalyoruk.cashgrid.ledger.dto.LedgerEntryResponse;
+import com.erenalyoruk.cashgrid.ledger.service.LedgerService;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/accounts/{accountId}/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MAKER', 'CHECKER')")
+    public ResponseEntity<PageResponse<LedgerEntryResponse>> listPostings(
+            @PathVariable UUID accountId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ledgerService.listPostings(accountId, from, to, page, size));
+    }
+}
@@ -0,0 +1,16 @@
+package com.erenalyoruk.cashgrid.ledger.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Builder;
+
+@Builder
+public record LedgerEntryResponse(
+        UUID id,
+        UUID accountId,
+        UUID paymentId,
+        String direction,
+        BigDecimal amount,
+        String currency,
+        Instant postedAt) {}
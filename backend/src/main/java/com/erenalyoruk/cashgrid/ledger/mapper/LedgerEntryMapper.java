@@ -0,0 +1,13 @@
+package com.erenalyoruk.cashgrid.ledger.mapper;
+
+import com.erenalyoruk.cashgrid.ledger.dto.LedgerEntryResponse;
+import com.erenalyoruk.cashgrid.ledger.model.LedgerEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface LedgerEntryMapper {
+
+    @Mapping(target = "direction", expression = "java(ledgerEntry.getDirection().name())")
+    LedgerEntryResponse toResponse(LedgerEntry ledgerEntry);
+}
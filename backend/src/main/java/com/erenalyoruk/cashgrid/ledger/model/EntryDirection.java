@@ -0,0 +1,6 @@
+package com.erenalyoruk.cashgrid.ledger.model;
+
+public enum EntryDirection {
+    DEBIT,
+    CREDIT
+}
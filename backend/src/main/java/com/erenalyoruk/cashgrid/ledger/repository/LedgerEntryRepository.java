@@ -0,0 +1,25 @@
+package com.erenalyoruk.cashgrid.ledger.repository;
+
+import com.erenalyoruk.cashgrid.ledger.model.LedgerEntry;
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    // Served by idx_ledger_account_posted (account_id, posted_at DESC)
+    @Query(
+            "SELECT e FROM LedgerEntry e WHERE e.accountId = :accountId "
+                    + "AND e.postedAt >= :from AND e.postedAt < :to")
+    Page<LedgerEntry> findPostings(
+            @Param("accountId") UUID accountId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Pageable pageable);
+}
@@ -0,0 +1,107 @@
+package com.erenalyoruk.cashgrid.ledger.service;
+
+import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
+import com.erenalyoruk.cashgrid.common.dto.PageResponse;
+import com.erenalyoruk.cashgrid.common.exception.BusinessException;
+import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import com.erenalyoruk.cashgrid.ledger.dto.LedgerEntryResponse;
+import com.erenalyoruk.cashgrid.ledger.mapper.LedgerEntryMapper;
+import com.erenalyoruk.cashgrid.ledger.model.EntryDirection;
+import com.erenalyoruk.cashgrid.ledger.model.LedgerEntry;
+import com.erenalyoruk.cashgrid.ledger.repository.LedgerEntryRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    private static final Instant MAX_POSTED_AT = Instant.parse("9999-12-31T00:00:00Z");
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerEntryMapper ledgerEntryMapper;
+
+    // Appends the debit/credit pair. Balances are moved by AccountBalanceService in the same
+    // transaction, under the locks the caller already holds.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void postTransfer(
+            UUID paymentId, UUID sourceId, UUID targetId, BigDecimal amount, String currency) {
+
+        ledgerEntryRepository.saveAll(
+                List.of(
+                        LedgerEntry.builder()
+                                .accountId(sourceId)
+                                .paymentId(paymentId)
+                                .direction(EntryDirection.DEBIT)
+                                .amount(amount)
+                                .currency(currency)
+                                .build(),
+                        LedgerEntry.builder()
+                                .accountId(targetId)
+                                .paymentId(paymentId)
+                                .direction(EntryDirection.CREDIT)
+                                .amount(amount)
+                                .currency(currency)
+                                .build()));
+
+        log.debug(
+                "Ledger posted: {} {} from {} to {}",
+                amount,
+                currency,
+                sourceId,
+                targetId);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<LedgerEntryResponse> listPostings(
+            UUID accountId, Instant from, Instant to, int page, int size) {
+
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Account", "id", accountId);
+        }
+
+        Instant fromInst = from != null ? from : Instant.EPOCH;
+        Instant toInst = to != null ? to : MAX_POSTED_AT;
+        if (!fromInst.isBefore(toInst)) {
+            throw new BusinessException("INVALID_RANGE", "'from' must be before 'to'");
+        }
+
+        // id breaks ties, so rows posted together keep their page across requests
+        Pageable pageable =
+                PageRequest.of(
+                        page,
+                        size,
+                        Sort.by(Sort.Direction.DESC, "postedAt")
+                                .and(Sort.by("direction"))
+                                .and(Sort.by("id")));
+        Page<LedgerEntry> entryPage =
+                ledgerEntryRepository.findPostings(accountId, fromInst, toInst, pageable);
+
+        return PageResponse.<LedgerEntryResponse>builder()
+                .content(
+                        entryPage.getContent().stream()
+                                .map(ledgerEntryMapper::toResponse)
+                                .toList())
+                .page(entryPage.getNumber())
+                .size(entryPage.getSize())
+                .totalElements(entryPage.getTotalElements())
+                .totalPages(entryPage.getTotalPages())
+                .last(entryPage.isLast())
+                .build();
+    }
+}
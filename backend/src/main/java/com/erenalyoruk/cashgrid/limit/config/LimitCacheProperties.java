@@ -0,0 +1,16 @@
+package com.erenalyoruk.cashgrid.limit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.limit.cache")
+@Getter
+@Setter
+public class LimitCacheProperties {
+
+    private boolean listen = true;
+    private long reconnectDelayMs = 5000;
+}
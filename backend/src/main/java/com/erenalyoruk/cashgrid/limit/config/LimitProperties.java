@@ -0,0 +1,18 @@
+package com.erenalyoruk.cashgrid.limit.config;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.limit")
+@Getter
+@Setter
+public class LimitProperties {
+
+    // Daily limits roll over at midnight in this zone
+    private ZoneId businessZone = ZoneOffset.UTC;
+}
@@ -16,30 +16,47 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class LimitController {
 
+    private static final String SNAPSHOT_VERSION_HEADER = "X-Limit-Snapshot-Version";
+
     private final LimitService limitService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<LimitResponse> create(@Valid @RequestBody CreateLimitRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(limitService.create(request));
+        LimitResponse response = limitService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(SNAPSHOT_VERSION_HEADER, snapshotVersion())
+                .body(response);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<LimitResponse> update(
             @PathVariable UUID id, @Valid @RequestBody UpdateLimitRequest request) {
-        return ResponseEntity.ok(limitService.update(id, request));
+        LimitResponse response = limitService.update(id, request);
+        return ResponseEntity.ok()
+                .header(SNAPSHOT_VERSION_HEADER, snapshotVersion())
+                .body(response);
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<LimitResponse>> listAll() {
-        return ResponseEntity.ok(limitService.listAll());
+        return ResponseEntity.ok()
+                .header(SNAPSHOT_VERSION_HEADER, snapshotVersion())
+                .body(limitService.listAll());
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<LimitResponse> getById(@PathVariable UUID id) {
-        return ResponseEntity.ok(limitService.getById(id));
+        return ResponseEntity.ok()
+                .header(SNAPSHOT_VERSION_HEADER, snapshotVersion())
+                .body(limitService.getById(id));
+    }
+
+    // Version of the in-memory limits this node enforces, read after the call has committed
+    private String snapshotVersion() {
+        return String.valueOf(limitService.snapshotVersion());
     }
 }
@@ -0,0 +1,5 @@
+package com.erenalyoruk.cashgrid.limit.event;
+
+import java.util.UUID;
+
+public record LimitsChangedEvent(UUID limitId) {}
@@ -0,0 +1,112 @@
+package com.erenalyoruk.cashgrid.limit.migration;
+
+import com.erenalyoruk.cashgrid.limit.config.LimitProperties;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+// Fills daily_spend with business dates in app.limit.business-zone, the zone LimitService rolls
+// limits over in; a Java migration because SQL cannot see that configuration. Only counters
+// that can still change are filled: today's, which new payments reserve against, and those of
+// dates with payments still open, which a rejection or failure releases from.
+@Component
+@RequiredArgsConstructor
+public class V20__BackfillDailySpendInBusinessZone extends BaseJavaMigration {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    private final LimitProperties limitProperties;
+
+    private record SpendKey(UUID userId, String currency, LocalDate businessDate) {}
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        ZoneId businessZone = limitProperties.getBusinessZone();
+        Connection connection = context.getConnection();
+
+        LocalDate today = LocalDate.now(businessZone);
+        Set<SpendKey> openKeys = new HashSet<>();
+        LocalDate from = today;
+        try (Statement select = connection.createStatement();
+                ResultSet rs =
+                        select.executeQuery(
+                                "SELECT created_by, currency, created_at FROM payments WHERE"
+                                        + " status IN ('PENDING', 'APPROVED', 'PROCESSING')")) {
+            while (rs.next()) {
+                SpendKey key = spendKey(rs, businessZone);
+                openKeys.add(key);
+                if (key.businessDate().isBefore(from)) {
+                    from = key.businessDate();
+                }
+            }
+        }
+
+        // Payments from the oldest open date on; only the counters named above are kept
+        Map<SpendKey, BigDecimal> spent = new HashMap<>();
+        try (PreparedStatement select =
+                connection.prepareStatement(
+                        "SELECT created_by, currency, created_at, amount FROM payments"
+                                + " WHERE status NOT IN ('REJECTED', 'FAILED')"
+                                + " AND created_at >= ?")) {
+            select.setFetchSize(FETCH_SIZE);
+            select.setTimestamp(1, Timestamp.from(from.atStartOfDay(businessZone).toInstant()));
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    SpendKey key = spendKey(rs, businessZone);
+                    if (key.businessDate().equals(today) || openKeys.contains(key)) {
+                        spent.merge(key, rs.getBigDecimal("amount"), BigDecimal::add);
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement insert =
+                connection.prepareStatement(
+                        "INSERT INTO daily_spend (user_id, currency, business_date, spent) "
+                                + "VALUES (?, ?, ?, ?)")) {
+            int batched = 0;
+            for (Map.Entry<SpendKey, BigDecimal> entry : spent.entrySet()) {
+                SpendKey key = entry.getKey();
+                insert.setObject(1, key.userId());
+                insert.setString(2, key.currency());
+                insert.setDate(3, Date.valueOf(key.businessDate()));
+                insert.setBigDecimal(4, entry.getValue());
+                insert.addBatch();
+                if (++batched == BATCH_SIZE) {
+                    insert.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+
+    // Reads created_at back the way Hibernate does, so the dates match LimitService's
+    private static SpendKey spendKey(ResultSet rs, ZoneId businessZone) throws SQLException {
+        Instant createdAt = rs.getTimestamp("created_at").toInstant();
+        return new SpendKey(
+                rs.getObject("created_by", UUID.class),
+                rs.getString("currency"),
+                LocalDate.ofInstant(createdAt, businessZone));
+    }
+}
@@ -0,0 +1,81 @@
+package com.erenalyoruk.cashgrid.limit.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class DailySpendRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO daily_spend (user_id, currency, business_date, spent) "
+                    + "VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (user_id, currency, business_date) "
+                    + "DO UPDATE SET spent = daily_spend.spent + EXCLUDED.spent ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Adds the amount only if the new total stays within maxDaily; empty when it would not.
+    // The row lock is held until commit, so concurrent creates cannot both pass.
+    public Optional<BigDecimal> tryReserve(
+            UUID userId, String currency, LocalDate date, BigDecimal amount, BigDecimal maxDaily) {
+        return jdbcTemplate
+                .query(
+                        UPSERT
+                                + "WHERE daily_spend.spent + EXCLUDED.spent <= ? "
+                                + "RETURNING spent",
+                        (rs, rowNum) -> rs.getBigDecimal("spent"),
+                        userId,
+                        currency,
+                        date,
+                        amount,
+                        maxDaily)
+                .stream()
+                .findFirst();
+    }
+
+    public void add(UUID userId, String currency, LocalDate date, BigDecimal amount) {
+        jdbcTemplate.update(UPSERT, userId, currency, date, amount);
+    }
+
+    public void release(UUID userId, String currency, LocalDate date, BigDecimal amount) {
+        jdbcTemplate.update(
+                "UPDATE daily_spend SET spent = GREATEST(spent - ?, 0) "
+                        + "WHERE user_id = ? AND currency = ? AND business_date = ?",
+                amount,
+                userId,
+                currency,
+                date);
+    }
+
+    // Creates the row if needed and locks it for the rest of the transaction
+    public BigDecimal lockSpent(UUID userId, String currency, LocalDate date) {
+        add(userId, currency, date, BigDecimal.ZERO);
+        return jdbcTemplate.queryForObject(
+                "SELECT spent FROM daily_spend "
+                        + "WHERE user_id = ? AND currency = ? AND business_date = ? FOR UPDATE",
+                BigDecimal.class,
+                userId,
+                currency,
+                date);
+    }
+
+    public BigDecimal findSpent(UUID userId, String currency, LocalDate date) {
+        return jdbcTemplate
+                .query(
+                        "SELECT spent FROM daily_spend "
+                                + "WHERE user_id = ? AND currency = ? AND business_date = ?",
+                        (rs, rowNum) -> rs.getBigDecimal("spent"),
+                        userId,
+                        currency,
+                        date)
+                .stream()
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+}
@@ -2,15 +2,20 @@ package com.erenalyoruk.cashgrid.limit.repository;
 
 import com.erenalyoruk.cashgrid.auth.model.Role;
 import com.erenalyoruk.cashgrid.limit.model.Limit;
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface LimitRepository extends JpaRepository<Limit, UUID> {
 
-    Optional<Limit> findByRoleAndCurrencyAndIsActiveTrue(Role role, String currency);
+    List<Limit> findByIsActiveTrue();
+
+    // Bumped by the trg_limits_changed trigger on every write to limits
+    @Query(value = "SELECT last_value FROM limit_version_seq", nativeQuery = true)
+    long currentVersion();
 
     boolean existsByRoleAndCurrency(Role role, String currency);
 }
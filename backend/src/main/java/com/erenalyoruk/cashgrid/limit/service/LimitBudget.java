@@ -0,0 +1,85 @@
+package com.erenalyoruk.cashgrid.limit.service;
+
+import com.erenalyoruk.cashgrid.auth.model.Role;
+import com.erenalyoruk.cashgrid.common.exception.BusinessException;
+import java.math.BigDecimal;
+
+// Remaining single/daily allowance for one user and currency. Reserving deducts from the
+// in-memory running total, so a batch locks and reads the daily-spend counter only once.
+public class LimitBudget {
+
+    private final Role role;
+    private final BigDecimal maxSingleAmount;
+    private final BigDecimal maxDailyAmount;
+    private BigDecimal spent;
+
+    LimitBudget(
+            Role role, BigDecimal maxSingleAmount, BigDecimal maxDailyAmount, BigDecimal spent) {
+        this.role = role;
+        this.maxSingleAmount = maxSingleAmount;
+        this.maxDailyAmount = maxDailyAmount;
+        this.spent = spent;
+    }
+
+    static LimitBudget unlimited(Role role) {
+        return new LimitBudget(role, null, null, BigDecimal.ZERO);
+    }
+
+    public boolean isLimited() {
+        return maxDailyAmount != null;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public BigDecimal getMaxDailyAmount() {
+        return maxDailyAmount;
+    }
+
+    public void reserve(BigDecimal amount) {
+        if (!isLimited()) {
+            return;
+        }
+
+        // Single amount check
+        if (amount.compareTo(maxSingleAmount) > 0) {
+            throw singleLimitExceeded(role, amount, maxSingleAmount);
+        }
+
+        // Daily amount check
+        BigDecimal projectedTotal = spent.add(amount);
+
+        if (projectedTotal.compareTo(maxDailyAmount) > 0) {
+            throw dailyLimitExceeded(role, amount, maxDailyAmount, spent);
+        }
+
+        spent = projectedTotal;
+    }
+
+    // Gives back a reservation whose payment was never stored
+    public void release(BigDecimal amount) {
+        if (isLimited()) {
+            spent = spent.subtract(amount);
+        }
+    }
+
+    static BusinessException singleLimitExceeded(
+            Role role, BigDecimal amount, BigDecimal maxSingleAmount) {
+        return new BusinessException(
+                "LIMIT_EXCEEDED_SINGLE",
+                String.format(
+                        "Amount %s exceeds single transaction limit %s for role %s",
+                        amount, maxSingleAmount, role));
+    }
+
+    static BusinessException dailyLimitExceeded(
+            Role role, BigDecimal amount, BigDecimal maxDailyAmount, BigDecimal spent) {
+        return new BusinessException(
+                "LIMIT_EXCEEDED_DAILY",
+                String.format(
+                        "Projected daily total %s exceeds daily limit %s for role %s (already"
+                                + " spent: %s)",
+                        spent.add(amount), maxDailyAmount, role, spent));
+    }
+}
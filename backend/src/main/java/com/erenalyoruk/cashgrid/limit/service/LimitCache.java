@@ -0,0 +1,54 @@
+package com.erenalyoruk.cashgrid.limit.service;
+
+import com.erenalyoruk.cashgrid.limit.event.LimitsChangedEvent;
+import com.erenalyoruk.cashgrid.limit.model.Limit;
+import com.erenalyoruk.cashgrid.limit.repository.LimitRepository;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Active limits held in memory and swapped as a whole, so reads never lock or hit the database.
+// Rebuilt after local writes commit and when LimitChangeListener hears about other nodes' writes.
+@Component
+@RequiredArgsConstructor
+public class LimitCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitCache.class);
+
+    private final LimitRepository limitRepository;
+
+    private volatile LimitSnapshot snapshot;
+
+    public LimitSnapshot current() {
+        LimitSnapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    public synchronized LimitSnapshot refresh() {
+        // Version first: a change committed after this read triggers another refresh
+        long version = limitRepository.currentVersion();
+
+        Map<LimitSnapshot.Key, LimitSnapshot.ActiveLimit> limits = new HashMap<>();
+        for (Limit limit : limitRepository.findByIsActiveTrue()) {
+            limits.put(
+                    new LimitSnapshot.Key(limit.getRole(), limit.getCurrency()),
+                    new LimitSnapshot.ActiveLimit(
+                            limit.getMaxSingleAmount(), limit.getMaxDailyAmount()));
+        }
+
+        snapshot = new LimitSnapshot(version, Map.copyOf(limits));
+        log.debug("Limit snapshot rebuilt: version {} with {} limits", version, limits.size());
+
+        return snapshot;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLimitsChanged(LimitsChangedEvent event) {
+        refresh();
+    }
+}
@@ -0,0 +1,95 @@
+package com.erenalyoruk.cashgrid.limit.service;
+
+import com.erenalyoruk.cashgrid.limit.config.LimitCacheProperties;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Holds one connection on LISTEN limits_changed (fired by the trigger on limits) and refreshes
+// the snapshot whenever any node commits a limit change.
+@Component
+@RequiredArgsConstructor
+public class LimitChangeListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitChangeListener.class);
+
+    private static final String CHANNEL = "limits_changed";
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final DataSource dataSource;
+    private final LimitCache limitCache;
+    private final LimitCacheProperties properties;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @Override
+    public synchronized void start() {
+        if (running || !properties.isListen()) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofVirtual().name("limit-change-listener").start(this::listen);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        listener.interrupt();
+        try {
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+
+                // Catch up on anything committed while we were not listening
+                limitCache.refresh();
+                log.info("Listening for limit changes");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications =
+                            pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        limitCache.refresh();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Limit change listener lost its connection, reconnecting", e);
+                try {
+                    Thread.sleep(properties.getReconnectDelayMs());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+}
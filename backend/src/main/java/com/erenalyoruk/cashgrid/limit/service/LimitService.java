@@ -4,21 +4,28 @@ import com.erenalyoruk.cashgrid.auth.model.Role;
 import com.erenalyoruk.cashgrid.common.exception.BusinessException;
 import com.erenalyoruk.cashgrid.common.exception.ConflictException;
 import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import com.erenalyoruk.cashgrid.limit.config.LimitProperties;
 import com.erenalyoruk.cashgrid.limit.dto.*;
+import com.erenalyoruk.cashgrid.limit.event.LimitsChangedEvent;
 import com.erenalyoruk.cashgrid.limit.mapper.LimitMapper;
 import com.erenalyoruk.cashgrid.limit.model.Limit;
+import com.erenalyoruk.cashgrid.limit.repository.DailySpendRepository;
 import com.erenalyoruk.cashgrid.limit.repository.LimitRepository;
-import com.erenalyoruk.cashgrid.payment.repository.PaymentRepository;
+import com.erenalyoruk.cashgrid.limit.service.LimitSnapshot.ActiveLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -28,8 +35,12 @@ public class LimitService {
     private static final Logger log = LoggerFactory.getLogger(LimitService.class);
 
     private final LimitRepository limitRepository;
-    private final PaymentRepository paymentRepository;
+    private final DailySpendRepository dailySpendRepository;
+    private final LimitCache limitCache;
     private final LimitMapper limitMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final LimitProperties limitProperties;
 
     @Transactional
     public LimitResponse create(CreateLimitRequest request) {
@@ -52,6 +63,7 @@ public class LimitService {
                         .build();
 
         limit = limitRepository.save(limit);
+        eventPublisher.publishEvent(new LimitsChangedEvent(limit.getId()));
 
         log.info(
                 "Limit created: {} {} - single:{} daily:{}",
@@ -78,6 +90,7 @@ public class LimitService {
         }
 
         limit = limitRepository.save(limit);
+        eventPublisher.publishEvent(new LimitsChangedEvent(limit.getId()));
 
         log.info("Limit updated: {}", id);
 
@@ -98,37 +111,46 @@ public class LimitService {
         return limitMapper.toResponse(limit);
     }
 
-    public void checkLimits(Role role, String currency, BigDecimal amount, UUID userId) {
-        Limit limit =
-                limitRepository.findByRoleAndCurrencyAndIsActiveTrue(role, currency).orElse(null);
+    // Checks the single limit and reserves the amount on today's counter with one conditional
+    // upsert. Runs in the caller's transaction, so a rollback also undoes the reservation.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserveLimits(Role role, String currency, BigDecimal amount, UUID userId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            reserve(role, currency, amount, userId);
+        } catch (BusinessException e) {
+            recordCheck(sample, "reserve", e.getErrorCode());
+            throw e;
+        }
+        recordCheck(sample, "reserve", "PASSED");
+    }
+
+    private void reserve(Role role, String currency, BigDecimal amount, UUID userId) {
+        LocalDate today = businessDate(Instant.now());
+        ActiveLimit limit = findActiveLimit(role, currency);
 
         if (limit == null) {
-            log.debug("No limit defined for role {} currency {}", role, currency);
+            dailySpendRepository.add(userId, currency, today, amount);
             return;
         }
 
-        // Single amount check
-        if (amount.compareTo(limit.getMaxSingleAmount()) > 0) {
-            throw new BusinessException(
-                    "LIMIT_EXCEEDED_SINGLE",
-                    String.format(
-                            "Amount %s exceeds single transaction limit %s for role %s",
-                            amount, limit.getMaxSingleAmount(), role));
+        if (amount.compareTo(limit.maxSingleAmount()) > 0) {
+            throw LimitBudget.singleLimitExceeded(role, amount, limit.maxSingleAmount());
         }
 
-        // Daily amount check
-        Instant startOfDay = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-        BigDecimal dailySpent = paymentRepository.sumDailySpent(userId, currency, startOfDay);
-        BigDecimal projectedTotal = dailySpent.add(amount);
-
-        if (projectedTotal.compareTo(limit.getMaxDailyAmount()) > 0) {
-            throw new BusinessException(
-                    "LIMIT_EXCEEDED_DAILY",
-                    String.format(
-                            "Projected daily total %s exceeds daily limit %s for role %s (already"
-                                    + " spent: %s)",
-                            projectedTotal, limit.getMaxDailyAmount(), role, dailySpent));
+        // The insert branch of the upsert skips the WHERE, so oversize amounts are rejected here
+        Optional<BigDecimal> dailySpent =
+                amount.compareTo(limit.maxDailyAmount()) <= 0
+                        ? dailySpendRepository.tryReserve(
+                                userId, currency, today, amount, limit.maxDailyAmount())
+                        : Optional.empty();
+
+        if (dailySpent.isEmpty()) {
+            throw LimitBudget.dailyLimitExceeded(
+                    role,
+                    amount,
+                    limit.maxDailyAmount(),
+                    dailySpendRepository.findSpent(userId, currency, today));
         }
 
         log.debug(
@@ -136,8 +158,70 @@ public class LimitService {
                 role,
                 currency,
                 amount,
-                dailySpent,
-                limit.getMaxDailyAmount());
+                dailySpent.get(),
+                limit.maxDailyAmount());
+    }
+
+    // Locks today's counter for the rest of the transaction and returns it as an in-memory
+    // budget. Callers record what they actually stored with recordSpend.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public LimitBudget openBudget(Role role, String currency, UUID userId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ActiveLimit limit = findActiveLimit(role, currency);
+
+        LimitBudget budget;
+        if (limit == null) {
+            budget = LimitBudget.unlimited(role);
+        } else {
+            BigDecimal dailySpent =
+                    dailySpendRepository.lockSpent(userId, currency, businessDate(Instant.now()));
+            budget =
+                    new LimitBudget(
+                            role, limit.maxSingleAmount(), limit.maxDailyAmount(), dailySpent);
+        }
+
+        recordCheck(sample, "open_budget", "PASSED");
+        return budget;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSpend(UUID userId, String currency, BigDecimal amount) {
+        dailySpendRepository.add(userId, currency, businessDate(Instant.now()), amount);
+    }
+
+    // Returns a payment's amount to the counter of the day it was created on
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(UUID userId, String currency, Instant createdAt, BigDecimal amount) {
+        dailySpendRepository.release(userId, currency, businessDate(createdAt), amount);
+    }
+
+    public long snapshotVersion() {
+        return limitCache.current().version();
+    }
+
+    // Outcome is PASSED or the error code of the exceeded limit
+    private void recordCheck(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(
+                Timer.builder("limit.check")
+                        .description("Limit checks including the daily counter round trip")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    // Served from the in-memory snapshot, no database round trip
+    private ActiveLimit findActiveLimit(Role role, String currency) {
+        ActiveLimit limit = limitCache.current().find(role, currency).orElse(null);
+
+        if (limit == null) {
+            log.debug("No limit defined for role {} currency {}", role, currency);
+        }
+        return limit;
+    }
+
+    private LocalDate businessDate(Instant instant) {
+        return LocalDate.ofInstant(instant, limitProperties.getBusinessZone());
     }
 
     private Role parseRole(String role) {
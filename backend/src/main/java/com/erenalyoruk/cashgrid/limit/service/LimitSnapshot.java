@@ -0,0 +1,18 @@
+package com.erenalyoruk.cashgrid.limit.service;
+
+import com.erenalyoruk.cashgrid.auth.model.Role;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+// Immutable view of every active limit at one version of the limits table
+public record LimitSnapshot(long version, Map<Key, ActiveLimit> limits) {
+
+    public Optional<ActiveLimit> find(Role role, String currency) {
+        return Optional.ofNullable(limits.get(new Key(role, currency)));
+    }
+
+    public record Key(Role role, String currency) {}
+
+    public record ActiveLimit(BigDecimal maxSingleAmount, BigDecimal maxDailyAmount) {}
+}
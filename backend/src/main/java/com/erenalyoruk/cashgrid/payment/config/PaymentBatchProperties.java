@@ -0,0 +1,16 @@
+package com.erenalyoruk.cashgrid.payment.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.payment.batch")
+@Getter
+@Setter
+public class PaymentBatchProperties {
+
+    private int maxItems = 20000;
+    private int chunkSize = 1000;
+}
@@ -0,0 +1,19 @@
+package com.erenalyoruk.cashgrid.payment.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.payment.processing")
+@Getter
+@Setter
+public class PaymentProcessingProperties {
+
+    private boolean enabled = true;
+    private int concurrency = 4;
+    private long pollIntervalMs = 1000;
+    // How long a transfer waits for a locked balance before the payment fails
+    private long lockTimeoutMs = 10_000;
+}
@@ -1,15 +1,20 @@
 package com.erenalyoruk.cashgrid.payment.controller;
 
+import com.erenalyoruk.cashgrid.auth.security.AuthenticatedUser;
 import com.erenalyoruk.cashgrid.common.dto.PageResponse;
 import com.erenalyoruk.cashgrid.payment.dto.*;
+import com.erenalyoruk.cashgrid.payment.service.PaymentBatchService;
 import com.erenalyoruk.cashgrid.payment.service.PaymentService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.security.Principal;
+import java.io.IOException;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,19 +23,31 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentBatchService paymentBatchService;
 
     @PostMapping
     @PreAuthorize("hasRole('MAKER')")
     public ResponseEntity<PaymentResponse> create(
-            @Valid @RequestBody CreatePaymentRequest request, Principal principal) {
+            @Valid @RequestBody CreatePaymentRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(paymentService.create(request, principal.getName()));
+                .body(paymentService.create(request, principal));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('MAKER')")
+    public ResponseEntity<BatchPaymentResponse> createBatch(
+            HttpServletRequest request, @AuthenticationPrincipal AuthenticatedUser principal)
+            throws IOException {
+        return ResponseEntity.ok(
+                paymentBatchService.createBatch(request.getInputStream(), principal));
     }
 
     @PostMapping("/{id}/approve")
     @PreAuthorize("hasRole('CHECKER')")
-    public ResponseEntity<PaymentResponse> approve(@PathVariable UUID id, Principal principal) {
-        return ResponseEntity.ok(paymentService.approve(id, principal.getName()));
+    public ResponseEntity<PaymentResponse> approve(
+            @PathVariable UUID id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.accepted().body(paymentService.approve(id, principal));
     }
 
     @PostMapping("/{id}/reject")
@@ -38,8 +55,24 @@ public class PaymentController {
     public ResponseEntity<PaymentResponse> reject(
             @PathVariable UUID id,
             @Valid @RequestBody RejectPaymentRequest request,
-            Principal principal) {
-        return ResponseEntity.ok(paymentService.reject(id, request, principal.getName()));
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(paymentService.reject(id, request, principal));
+    }
+
+    @PostMapping("/bulk-approve")
+    @PreAuthorize("hasRole('CHECKER')")
+    public ResponseEntity<BulkPaymentResponse> bulkApprove(
+            @Valid @RequestBody BulkApproveRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(paymentService.bulkApprove(request, principal));
+    }
+
+    @PostMapping("/bulk-reject")
+    @PreAuthorize("hasRole('CHECKER')")
+    public ResponseEntity<BulkPaymentResponse> bulkReject(
+            @Valid @RequestBody BulkRejectRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(paymentService.bulkReject(request, principal));
     }
 
     @GetMapping("/{id}")
@@ -54,8 +87,11 @@ public class PaymentController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String createdBy) {
-        return ResponseEntity.ok(paymentService.list(page, size, status, createdBy));
+            @RequestParam(required = false) String createdBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(
+                paymentService.list(page, size, status, createdBy, cursor, withTotal));
     }
 
     @GetMapping("/pending")
@@ -63,8 +99,11 @@ public class PaymentController {
     public ResponseEntity<PageResponse<PaymentResponse>> listPending(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            Principal principal) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         return ResponseEntity.ok(
-                paymentService.listPendingForChecker(page, size, principal.getName()));
+                paymentService.listPendingForChecker(
+                        page, size, principal, cursor, withTotal));
     }
 }
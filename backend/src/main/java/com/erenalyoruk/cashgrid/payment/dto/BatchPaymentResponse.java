@@ -0,0 +1,8 @@
+package com.erenalyoruk.cashgrid.payment.dto;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record BatchPaymentResponse(
+        int total, int created, int duplicates, int failed, List<BatchPaymentResult> results) {}
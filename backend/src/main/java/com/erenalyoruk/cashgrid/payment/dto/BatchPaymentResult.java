@@ -0,0 +1,29 @@
+package com.erenalyoruk.cashgrid.payment.dto;
+
+import java.util.UUID;
+
+public record BatchPaymentResult(
+        int index,
+        String idempotencyKey,
+        UUID id,
+        String outcome,
+        String errorCode,
+        String message) {
+
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String FAILED = "FAILED";
+
+    public static BatchPaymentResult created(int index, String idempotencyKey, UUID id) {
+        return new BatchPaymentResult(index, idempotencyKey, id, CREATED, null, null);
+    }
+
+    public static BatchPaymentResult duplicate(int index, String idempotencyKey, UUID id) {
+        return new BatchPaymentResult(index, idempotencyKey, id, DUPLICATE, null, null);
+    }
+
+    public static BatchPaymentResult failed(
+            int index, String idempotencyKey, String errorCode, String message) {
+        return new BatchPaymentResult(index, idempotencyKey, null, FAILED, errorCode, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.erenalyoruk.cashgrid.payment.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkApproveRequest(@NotEmpty @Size(max = 500) List<@NotNull UUID> paymentIds) {}
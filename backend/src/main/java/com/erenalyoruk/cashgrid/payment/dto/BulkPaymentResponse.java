@@ -0,0 +1,8 @@
+package com.erenalyoruk.cashgrid.payment.dto;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record BulkPaymentResponse(
+        int total, int succeeded, int failed, List<BulkPaymentResult> results) {}
@@ -0,0 +1,15 @@
+package com.erenalyoruk.cashgrid.payment.dto;
+
+import java.util.UUID;
+
+public record BulkPaymentResult(
+        UUID id, boolean success, String status, String errorCode, String message) {
+
+    public static BulkPaymentResult succeeded(UUID id, String status) {
+        return new BulkPaymentResult(id, true, status, null, null);
+    }
+
+    public static BulkPaymentResult failed(UUID id, String errorCode, String message) {
+        return new BulkPaymentResult(id, false, null, errorCode, message);
+    }
+}
@@ -0,0 +1,5 @@
+package com.erenalyoruk.cashgrid.payment.event;
+
+import java.util.UUID;
+
+public record PaymentApprovedEvent(UUID paymentId) {}
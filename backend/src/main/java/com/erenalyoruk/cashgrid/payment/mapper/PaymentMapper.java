@@ -2,6 +2,7 @@ package com.erenalyoruk.cashgrid.payment.mapper;
 
 import com.erenalyoruk.cashgrid.payment.dto.PaymentResponse;
 import com.erenalyoruk.cashgrid.payment.model.Payment;
+import org.mapstruct.InheritConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -18,4 +19,9 @@ public interface PaymentMapper {
                     "java(payment.getApprovedBy() != null ? payment.getApprovedBy().getUsername() :"
                             + " null)")
     PaymentResponse toResponse(Payment payment);
+
+    // Leaves the approvedBy reference uninitialised; callers fill in the name themselves
+    @InheritConfiguration(name = "toResponse")
+    @Mapping(target = "approvedByUsername", ignore = true)
+    PaymentResponse toResponseWithoutApprover(Payment payment);
 }
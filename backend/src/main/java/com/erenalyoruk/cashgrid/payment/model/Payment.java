@@ -12,6 +12,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Table(name = "payments")
+@NamedEntityGraph(
+        name = Payment.WITH_PARTIES,
+        attributeNodes = {
+            @NamedAttributeNode("sourceAccount"),
+            @NamedAttributeNode("targetAccount"),
+            @NamedAttributeNode("createdBy"),
+            @NamedAttributeNode("approvedBy")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +27,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 @Builder
 public class Payment {
 
+    // Everything PaymentMapper reads, fetched in the listing query instead of one load per row
+    public static final String WITH_PARTIES = "Payment.withParties";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -60,6 +71,9 @@ public class Payment {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
 
+    @Column(name = "correlation_id", length = 64)
+    private String correlationId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
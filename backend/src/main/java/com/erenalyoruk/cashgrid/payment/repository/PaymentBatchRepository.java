@@ -0,0 +1,118 @@
+package com.erenalyoruk.cashgrid.payment.repository;
+
+import com.erenalyoruk.cashgrid.payment.model.Payment;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class PaymentBatchRepository {
+
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO payments (id, idempotency_key, source_account_id, target_account_id, "
+                    + "amount, currency, description, status, created_by, created_at, "
+                    + "updated_at, create_response) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb) "
+                    + "ON CONFLICT (idempotency_key) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Optional<StoredPayment> findByIdempotencyKey(String idempotencyKey) {
+        return jdbcTemplate
+                .query(
+                        "SELECT id, create_response FROM payments WHERE idempotency_key = ?",
+                        (rs, rowNum) ->
+                                new StoredPayment(
+                                        rs.getObject("id", UUID.class),
+                                        rs.getString("create_response")),
+                        idempotencyKey)
+                .stream()
+                .findFirst();
+    }
+
+    public Map<String, UUID> findIdsByIdempotencyKeys(Collection<String> idempotencyKeys) {
+        Map<String, UUID> ids = new HashMap<>();
+        if (idempotencyKeys.isEmpty()) {
+            return ids;
+        }
+
+        namedParameterJdbcTemplate.query(
+                "SELECT idempotency_key, id FROM payments WHERE idempotency_key IN (:keys)",
+                Map.of("keys", idempotencyKeys),
+                rs -> {
+                    ids.put(rs.getString("idempotency_key"), rs.getObject("id", UUID.class));
+                });
+        return ids;
+    }
+
+    // Single round trip; false when a payment with the same idempotency key already exists
+    public boolean insertIfAbsent(Payment payment, String response) {
+        return !jdbcTemplate
+                .query(
+                        INSERT_PAYMENT + " RETURNING id",
+                        ps -> bind(ps, payment, response),
+                        (rs, rowNum) -> rs.getObject("id", UUID.class))
+                .isEmpty();
+    }
+
+    // Returns the idempotency keys that lost a race with a concurrent insert
+    public Set<String> insertPending(
+            List<Payment> payments, Function<Payment, String> responseSnapshot) {
+        Set<String> conflicts = new HashSet<>();
+        if (payments.isEmpty()) {
+            return conflicts;
+        }
+
+        int[][] counts =
+                jdbcTemplate.batchUpdate(
+                        INSERT_PAYMENT,
+                        payments,
+                        payments.size(),
+                        (ps, payment) -> bind(ps, payment, responseSnapshot.apply(payment)));
+
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    conflicts.add(payments.get(i).getIdempotencyKey());
+                }
+                i++;
+            }
+        }
+        return conflicts;
+    }
+
+    private static void bind(PreparedStatement ps, Payment payment, String response)
+            throws SQLException {
+        ps.setObject(1, payment.getId());
+        ps.setString(2, payment.getIdempotencyKey());
+        ps.setObject(3, payment.getSourceAccount().getId());
+        ps.setObject(4, payment.getTargetAccount().getId());
+        ps.setBigDecimal(5, payment.getAmount());
+        ps.setString(6, payment.getCurrency());
+        ps.setString(7, payment.getDescription());
+        ps.setString(8, payment.getStatus().name());
+        ps.setObject(9, payment.getCreatedBy().getId());
+        ps.setTimestamp(10, Timestamp.from(payment.getCreatedAt()));
+        ps.setTimestamp(11, Timestamp.from(payment.getUpdatedAt()));
+        ps.setString(12, response);
+    }
+
+    // create_response is null for payments stored before snapshots existed
+    public record StoredPayment(UUID id, String response) {}
+}
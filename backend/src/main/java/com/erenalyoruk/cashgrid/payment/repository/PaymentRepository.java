@@ -2,13 +2,18 @@ package com.erenalyoruk.cashgrid.payment.repository;
 
 import com.erenalyoruk.cashgrid.payment.model.Payment;
 import com.erenalyoruk.cashgrid.payment.model.PaymentStatus;
-import java.math.BigDecimal;
+import jakarta.persistence.LockModeType;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,28 +21,82 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
+    // Keyset predicate for (createdAt DESC, id DESC) listings; never runs a COUNT. The row
+    // comparison becomes a single index condition on the (..., created_at DESC, id DESC) indexes.
+    String AFTER_CURSOR = "(p.createdAt, p.id) < (:createdAt, :id)";
+
+    String KEYSET_ORDER = " ORDER BY p.createdAt DESC, p.id DESC";
+
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
 
     boolean existsByIdempotencyKey(String idempotencyKey);
 
+    @EntityGraph(Payment.WITH_PARTIES)
     Page<Payment> findByStatus(PaymentStatus status, Pageable pageable);
 
+    @EntityGraph(Payment.WITH_PARTIES)
     Page<Payment> findByCreatedById(UUID userId, Pageable pageable);
 
+    @EntityGraph(Payment.WITH_PARTIES)
+    @Query("SELECT p FROM Payment p")
+    Page<Payment> findAllWithParties(Pageable pageable);
+
+    @EntityGraph(Payment.WITH_PARTIES)
     @Query("SELECT p FROM Payment p WHERE p.status = :status " + "AND p.createdBy.id <> :checkerId")
     Page<Payment> findPendingForChecker(
             @Param("status") PaymentStatus status,
             @Param("checkerId") UUID checkerId,
             Pageable pageable);
 
+    @EntityGraph(Payment.WITH_PARTIES)
+    @Query("SELECT p FROM Payment p WHERE " + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<Payment> findAfter(
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @EntityGraph(Payment.WITH_PARTIES)
+    @Query("SELECT p FROM Payment p WHERE p.status = :status AND " + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<Payment> findByStatusAfter(
+            @Param("status") PaymentStatus status,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+
+    @EntityGraph(Payment.WITH_PARTIES)
     @Query(
-            "SELECT COALESCE(SUM(p.amount), 0) FROM Payment p "
-                    + "WHERE p.createdBy.id = :userId "
-                    + "AND p.currency = :currency "
-                    + "AND p.status NOT IN ('REJECTED', 'FAILED') "
-                    + "AND p.createdAt >= :since")
-    BigDecimal sumDailySpent(
+            "SELECT p FROM Payment p WHERE p.createdBy.id = :userId AND "
+                    + AFTER_CURSOR
+                    + KEYSET_ORDER)
+    Slice<Payment> findByCreatedByIdAfter(
             @Param("userId") UUID userId,
-            @Param("currency") String currency,
-            @Param("since") Instant since);
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+
+    @EntityGraph(Payment.WITH_PARTIES)
+    @Query(
+            "SELECT p FROM Payment p WHERE p.status = :status "
+                    + "AND p.createdBy.id <> :checkerId AND "
+                    + AFTER_CURSOR
+                    + KEYSET_ORDER)
+    Slice<Payment> findPendingForCheckerAfter(
+            @Param("status") PaymentStatus status,
+            @Param("checkerId") UUID checkerId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id IN :ids ORDER BY p.id")
+    List<Payment> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Query(
+            value =
+                    "SELECT * FROM payments WHERE status = 'APPROVED' "
+                            + "ORDER BY updated_at LIMIT 1 FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<Payment> claimNextApproved();
 }
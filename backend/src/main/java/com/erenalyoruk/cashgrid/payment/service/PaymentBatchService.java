@@ -0,0 +1,354 @@
+package com.erenalyoruk.cashgrid.payment.service;
+
+import com.erenalyoruk.cashgrid.account.model.Account;
+import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import com.erenalyoruk.cashgrid.audit.model.PaymentCreatedDetails;
+import com.erenalyoruk.cashgrid.audit.service.AuditDetailsCodec;
+import com.erenalyoruk.cashgrid.audit.service.AuditService;
+import com.erenalyoruk.cashgrid.auth.model.User;
+import com.erenalyoruk.cashgrid.auth.security.AuthenticatedUser;
+import com.erenalyoruk.cashgrid.common.exception.BadRequestException;
+import com.erenalyoruk.cashgrid.common.exception.BusinessException;
+import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import com.erenalyoruk.cashgrid.common.filter.CorrelationIdFilter;
+import com.erenalyoruk.cashgrid.limit.service.LimitBudget;
+import com.erenalyoruk.cashgrid.limit.service.LimitService;
+import com.erenalyoruk.cashgrid.payment.config.PaymentBatchProperties;
+import com.erenalyoruk.cashgrid.payment.dto.BatchPaymentResponse;
+import com.erenalyoruk.cashgrid.payment.dto.BatchPaymentResult;
+import com.erenalyoruk.cashgrid.payment.dto.CreatePaymentRequest;
+import com.erenalyoruk.cashgrid.payment.mapper.PaymentMapper;
+import com.erenalyoruk.cashgrid.payment.model.Payment;
+import com.erenalyoruk.cashgrid.payment.model.PaymentStatus;
+import com.erenalyoruk.cashgrid.payment.repository.PaymentBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentBatchService.class);
+
+    private final PaymentBatchRepository paymentBatchRepository;
+    private final AccountRepository accountRepository;
+    private final AuditService auditService;
+    private final AuditDetailsCodec auditDetailsCodec;
+    private final LimitService limitService;
+    private final PaymentMapper paymentMapper;
+    private final PaymentResponseCodec paymentResponseCodec;
+    private final PaymentBatchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    // Reads a JSON array of CreatePaymentRequest items one element at a time and processes them
+    // in chunks, so the request body is never materialised as a tree or string.
+    @Transactional
+    public BatchPaymentResponse createBatch(InputStream body, AuthenticatedUser maker) {
+        BatchContext context = new BatchContext(maker.toUser());
+        List<IndexedRequest> chunk = new ArrayList<>(properties.getChunkSize());
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("INVALID_BATCH", "Batch body must be a JSON array");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new BadRequestException(
+                            "INVALID_BATCH",
+                            String.format("Batch item %d is not a JSON object", index));
+                }
+                if (index >= properties.getMaxItems()) {
+                    throw new BusinessException(
+                            "BATCH_TOO_LARGE",
+                            String.format(
+                                    "Batch exceeds the maximum of %d payments",
+                                    properties.getMaxItems()));
+                }
+
+                CreatePaymentRequest request =
+                        objectMapper.readValue(parser, CreatePaymentRequest.class);
+                chunk.add(new IndexedRequest(index++, request));
+
+                if (chunk.size() == properties.getChunkSize()) {
+                    processChunk(chunk, context);
+                    chunk.clear();
+                }
+            }
+
+            if (parser.nextToken() != null) {
+                throw new BadRequestException(
+                        "INVALID_BATCH", "Unexpected content after the batch array");
+            }
+        } catch (JacksonException e) {
+            throw new BadRequestException(
+                    "INVALID_BATCH", "Malformed batch body: " + e.getOriginalMessage());
+        }
+
+        processChunk(chunk, context);
+        context.results.sort(Comparator.comparingInt(BatchPaymentResult::index));
+
+        log.info(
+                "Payment batch by {}: {} items, {} created, {} duplicates, {} failed",
+                maker.username(),
+                context.results.size(),
+                context.created,
+                context.duplicates,
+                context.failed);
+
+        return BatchPaymentResponse.builder()
+                .total(context.results.size())
+                .created(context.created)
+                .duplicates(context.duplicates)
+                .failed(context.failed)
+                .results(context.results)
+                .build();
+    }
+
+    private void processChunk(List<IndexedRequest> chunk, BatchContext context) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Set-based lookups for everything this chunk references
+        Set<String> keys = new HashSet<>();
+        Set<String> unresolvedIbans = new HashSet<>();
+        for (IndexedRequest item : chunk) {
+            if (item.request().idempotencyKey() != null) {
+                keys.add(item.request().idempotencyKey());
+            }
+            for (String iban : List.of(item.sourceIban(), item.targetIban())) {
+                if (!iban.isEmpty() && !context.accounts.containsKey(iban)) {
+                    unresolvedIbans.add(iban);
+                }
+            }
+        }
+
+        Map<String, UUID> existing = paymentBatchRepository.findIdsByIdempotencyKeys(keys);
+        if (!unresolvedIbans.isEmpty()) {
+            for (Account account : accountRepository.findByIbanIn(unresolvedIbans)) {
+                context.accounts.put(account.getIban(), account);
+            }
+        }
+
+        List<Payment> pending = new ArrayList<>();
+        List<IndexedRequest> pendingItems = new ArrayList<>();
+
+        for (IndexedRequest item : chunk) {
+            CreatePaymentRequest request = item.request();
+            String key = request.idempotencyKey();
+
+            Set<ConstraintViolation<CreatePaymentRequest>> violations =
+                    validator.validate(request);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<CreatePaymentRequest> violation = violations.iterator().next();
+                context.fail(
+                        item,
+                        "VALIDATION_ERROR",
+                        violation.getPropertyPath() + ": " + violation.getMessage());
+                continue;
+            }
+
+            // Idempotency — earlier in this batch or already stored
+            UUID duplicateOf = context.seenKeys.getOrDefault(key, existing.get(key));
+            if (duplicateOf != null) {
+                context.duplicate(item, duplicateOf);
+                continue;
+            }
+
+            try {
+                Payment payment = buildPayment(item, context);
+                pending.add(payment);
+                pendingItems.add(item);
+                context.seenKeys.put(key, payment.getId());
+            } catch (BusinessException e) {
+                context.fail(item, e.getErrorCode(), e.getMessage());
+            } catch (ResourceNotFoundException e) {
+                context.fail(item, "RESOURCE_NOT_FOUND", e.getMessage());
+            }
+        }
+
+        Set<String> conflicts =
+                paymentBatchRepository.insertPending(
+                        pending,
+                        payment -> paymentResponseCodec.write(paymentMapper.toResponse(payment)));
+        Map<String, UUID> conflictIds =
+                conflicts.isEmpty()
+                        ? Map.of()
+                        : paymentBatchRepository.findIdsByIdempotencyKeys(conflicts);
+
+        List<AuditLog> auditLogs = new ArrayList<>(pending.size());
+        String correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY);
+
+        Map<String, BigDecimal> createdAmounts = new HashMap<>();
+
+        for (int i = 0; i < pending.size(); i++) {
+            Payment payment = pending.get(i);
+            IndexedRequest item = pendingItems.get(i);
+
+            if (conflicts.contains(payment.getIdempotencyKey())) {
+                UUID winner = conflictIds.get(payment.getIdempotencyKey());
+                context.seenKeys.put(payment.getIdempotencyKey(), winner);
+                context.budgets.get(payment.getCurrency()).release(payment.getAmount());
+                context.duplicate(item, winner);
+                continue;
+            }
+
+            createdAmounts.merge(payment.getCurrency(), payment.getAmount(), BigDecimal::add);
+            context.created(item, payment.getId());
+            auditLogs.add(
+                    AuditLog.builder()
+                            .entityType("PAYMENT")
+                            .entityId(payment.getId())
+                            .action(AuditAction.PAYMENT_CREATED)
+                            .performedBy(context.maker.getId())
+                            .correlationId(correlationId)
+                            .details(
+                                    auditDetailsCodec.write(
+                                            new PaymentCreatedDetails(
+                                                    payment.getAmount(),
+                                                    item.sourceIban(),
+                                                    item.targetIban())))
+                            .build());
+        }
+
+        createdAmounts.forEach(
+                (currency, amount) ->
+                        limitService.recordSpend(context.maker.getId(), currency, amount));
+        auditService.logBatch(auditLogs);
+    }
+
+    private Payment buildPayment(IndexedRequest item, BatchContext context) {
+        CreatePaymentRequest request = item.request();
+        String sourceIban = item.sourceIban();
+        String targetIban = item.targetIban();
+
+        if (sourceIban.equals(targetIban)) {
+            throw new BusinessException(
+                    "SAME_ACCOUNT", "Source and target accounts cannot be the same");
+        }
+
+        Account sourceAccount = context.accounts.get(sourceIban);
+        if (sourceAccount == null) {
+            throw new ResourceNotFoundException("Account", "iban", sourceIban);
+        }
+        Account targetAccount = context.accounts.get(targetIban);
+        if (targetAccount == null) {
+            throw new ResourceNotFoundException("Account", "iban", targetIban);
+        }
+
+        if (!sourceAccount.getIsActive()) {
+            throw new BusinessException("ACCOUNT_INACTIVE", "Source account is inactive");
+        }
+        if (!targetAccount.getIsActive()) {
+            throw new BusinessException("ACCOUNT_INACTIVE", "Target account is inactive");
+        }
+
+        String currency =
+                (request.currency() != null && !request.currency().isBlank())
+                        ? request.currency().toUpperCase()
+                        : "TRY";
+
+        // One locked daily-spend read per currency, then a running total across the batch
+        LimitBudget budget =
+                context.budgets.computeIfAbsent(
+                        currency,
+                        c ->
+                                limitService.openBudget(
+                                        context.maker.getRole(), c, context.maker.getId()));
+        budget.reserve(request.amount());
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .idempotencyKey(request.idempotencyKey())
+                .sourceAccount(sourceAccount)
+                .targetAccount(targetAccount)
+                .amount(request.amount())
+                .currency(currency)
+                .description(request.description())
+                .status(PaymentStatus.PENDING)
+                .createdBy(context.maker)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static String normalizeIban(String iban) {
+        return iban == null ? "" : iban.replaceAll("\\s", "").toUpperCase();
+    }
+
+    private record IndexedRequest(int index, CreatePaymentRequest request) {
+
+        String sourceIban() {
+            return normalizeIban(request.sourceIban());
+        }
+
+        String targetIban() {
+            return normalizeIban(request.targetIban());
+        }
+    }
+
+    private static class BatchContext {
+
+        private final User maker;
+        private final Map<String, Account> accounts = new HashMap<>();
+        private final Map<String, UUID> seenKeys = new HashMap<>();
+        private final Map<String, LimitBudget> budgets = new HashMap<>();
+        private final List<BatchPaymentResult> results = new ArrayList<>();
+        private int created;
+        private int duplicates;
+        private int failed;
+
+        BatchContext(User maker) {
+            this.maker = maker;
+        }
+
+        void created(IndexedRequest item, UUID id) {
+            results.add(
+                    BatchPaymentResult.created(item.index(), item.request().idempotencyKey(), id));
+            created++;
+        }
+
+        void duplicate(IndexedRequest item, UUID id) {
+            results.add(
+                    BatchPaymentResult.duplicate(
+                            item.index(), item.request().idempotencyKey(), id));
+            duplicates++;
+        }
+
+        void fail(IndexedRequest item, String errorCode, String message) {
+            results.add(
+                    BatchPaymentResult.failed(
+                            item.index(), item.request().idempotencyKey(), errorCode, message));
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.erenalyoruk.cashgrid.payment.service;
+
+import com.erenalyoruk.cashgrid.account.model.Currency;
+import com.erenalyoruk.cashgrid.common.exception.BusinessException;
+import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// One timer per lifecycle transition, currency and outcome; its count doubles as the transition
+// counter. Outcomes are payment statuses or the error code that stopped the transition, so the
+// tag values stay a small fixed set.
+@Component
+@RequiredArgsConstructor
+public class PaymentMetrics {
+
+    public static final String CREATE = "create";
+    public static final String APPROVE = "approve";
+    public static final String REJECT = "reject";
+    public static final String PROCESS = "process";
+
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INSUFFICIENT_BALANCE = "INSUFFICIENT_BALANCE";
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String transition, String currency, String outcome) {
+        sample.stop(
+                Timer.builder("payment.transition")
+                        .description("Payment lifecycle transitions")
+                        .tag("transition", transition)
+                        .tag("currency", currencyTag(currency))
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    // Times action; a business error is recorded under its error code and rethrown
+    public <T> T time(
+            String transition,
+            String currency,
+            Function<T, String> outcome,
+            Supplier<T> action) {
+        Timer.Sample sample = start();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            stop(sample, transition, currency, outcomeOf(e));
+            throw e;
+        }
+        stop(sample, transition, currency, outcome.apply(result));
+        return result;
+    }
+
+    public static String outcomeOf(RuntimeException e) {
+        if (e instanceof BusinessException business) {
+            return business.getErrorCode();
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "RESOURCE_NOT_FOUND";
+        }
+        return "ERROR";
+    }
+
+    // Currencies come from requests, so anything outside the known set shares one tag
+    private static String currencyTag(String currency) {
+        if (currency != null) {
+            for (Currency known : Currency.values()) {
+                if (known.name().equals(currency)) {
+                    return currency;
+                }
+            }
+        }
+        return "OTHER";
+    }
+}
@@ -0,0 +1,97 @@
+package com.erenalyoruk.cashgrid.payment.service;
+
+import com.erenalyoruk.cashgrid.payment.config.PaymentProcessingProperties;
+import com.erenalyoruk.cashgrid.payment.event.PaymentApprovedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentProcessingWorker implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessingWorker.class);
+
+    private final PaymentProcessor paymentProcessor;
+    private final PaymentProcessingProperties properties;
+
+    // Released on local approvals so idle workers don't wait out the poll interval
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Override
+    public synchronized void start() {
+        if (running || !properties.isEnabled()) {
+            return;
+        }
+        running = true;
+
+        for (int i = 0; i < properties.getConcurrency(); i++) {
+            workers.add(Thread.ofVirtual().name("payment-worker-" + i).start(this::runLoop));
+        }
+
+        log.info("Started {} payment processing workers", properties.getConcurrency());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+
+        log.info("Stopped payment processing workers");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaymentApproved(PaymentApprovedEvent event) {
+        if (wakeUp.availablePermits() < properties.getConcurrency()) {
+            wakeUp.release();
+        }
+    }
+
+    private void runLoop() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            boolean claimed;
+            try {
+                claimed = paymentProcessor.processNext();
+            } catch (Exception e) {
+                log.error("Payment worker iteration failed", e);
+                claimed = false;
+            }
+
+            if (!claimed) {
+                try {
+                    wakeUp.tryAcquire(properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.erenalyoruk.cashgrid.payment.service;
+
+import com.erenalyoruk.cashgrid.account.service.AccountBalanceService;
+import com.erenalyoruk.cashgrid.account.service.BalanceLock;
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.PaymentCompletedDetails;
+import com.erenalyoruk.cashgrid.audit.model.PaymentFailedDetails;
+import com.erenalyoruk.cashgrid.audit.service.AuditService;
+import com.erenalyoruk.cashgrid.common.filter.CorrelationIdFilter;
+import com.erenalyoruk.cashgrid.common.persistence.TransactionSettings;
+import com.erenalyoruk.cashgrid.ledger.service.LedgerService;
+import com.erenalyoruk.cashgrid.limit.service.LimitService;
+import com.erenalyoruk.cashgrid.payment.config.PaymentProcessingProperties;
+import com.erenalyoruk.cashgrid.payment.model.Payment;
+import com.erenalyoruk.cashgrid.payment.model.PaymentStatus;
+import com.erenalyoruk.cashgrid.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Timer;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    private final PaymentRepository paymentRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final AuditService auditService;
+    private final LedgerService ledgerService;
+    private final LimitService limitService;
+    private final PaymentMetrics paymentMetrics;
+    private final TransactionSettings transactionSettings;
+    private final PaymentProcessingProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    // Claims one APPROVED payment with SKIP LOCKED so workers on every node can poll
+    // concurrently. Returns false when the queue is empty. A transfer that throws rolls back as
+    // a whole, claim included; the failure is then recorded in a transaction of its own, so the
+    // payment ends FAILED instead of going back to the head of the queue.
+    public boolean processNext() {
+        AtomicReference<Payment> claimed = new AtomicReference<>();
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            String outcome =
+                    new TransactionTemplate(transactionManager)
+                            .execute(status -> claimAndProcess(claimed));
+            if (outcome == null) {
+                return false;
+            }
+            paymentMetrics.stop(
+                    sample, PaymentMetrics.PROCESS, claimed.get().getCurrency(), outcome);
+            return true;
+        } catch (RuntimeException e) {
+            Payment payment = claimed.get();
+            if (payment == null) {
+                throw e;
+            }
+            log.error("Payment processing failed: {}", payment.getId(), e);
+            recordFailure(payment.getId(), e.getMessage());
+            paymentMetrics.stop(
+                    sample,
+                    PaymentMetrics.PROCESS,
+                    payment.getCurrency(),
+                    PaymentStatus.FAILED.name());
+            return true;
+        } finally {
+            MDC.remove(CorrelationIdFilter.CORRELATION_ID_MDC_KEY);
+        }
+    }
+
+    // Returns null when there was nothing to claim
+    private String claimAndProcess(AtomicReference<Payment> claimed) {
+        Optional<Payment> next = paymentRepository.claimNextApproved();
+        if (next.isEmpty()) {
+            return null;
+        }
+
+        Payment payment = next.get();
+        claimed.set(payment);
+        if (payment.getCorrelationId() != null) {
+            MDC.put(CorrelationIdFilter.CORRELATION_ID_MDC_KEY, payment.getCorrelationId());
+        }
+        return process(payment);
+    }
+
+    // Returns the outcome recorded on the payment.transition timer
+    private String process(Payment payment) {
+        payment.setStatus(PaymentStatus.PROCESSING);
+        paymentRepository.save(payment);
+
+        auditService.log(
+                "PAYMENT",
+                payment.getId(),
+                AuditAction.PAYMENT_PROCESSING,
+                payment.getApprovedBy().getId(),
+                MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
+                null);
+
+        // Lock balances in account id order so opposite-direction transfers cannot
+        // deadlock. Hot accounts are locked per shard rather than on the account row.
+        // A balance held elsewhere for longer than lock-timeout-ms fails the payment.
+        UUID sourceId = payment.getSourceAccount().getId();
+        UUID targetId = payment.getTargetAccount().getId();
+        BalanceLock source;
+        BalanceLock target;
+        transactionSettings.lockTimeout(properties.getLockTimeoutMs());
+        if (sourceId.compareTo(targetId) < 0) {
+            source = accountBalanceService.lockForDebit(sourceId, payment.getAmount());
+            target = accountBalanceService.lockForCredit(targetId);
+        } else {
+            target = accountBalanceService.lockForCredit(targetId);
+            source = accountBalanceService.lockForDebit(sourceId, payment.getAmount());
+        }
+        transactionSettings.lockTimeout(0);
+
+        // Insufficient balance check
+        if (source.available().compareTo(payment.getAmount()) < 0) {
+            markFailed(payment);
+
+            auditService.log(
+                    "PAYMENT",
+                    payment.getId(),
+                    AuditAction.PAYMENT_FAILED,
+                    payment.getApprovedBy().getId(),
+                    MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
+                    new PaymentFailedDetails("Insufficient balance"));
+
+            return PaymentMetrics.INSUFFICIENT_BALANCE;
+        }
+
+        // Transfer — move the balances and append the double-entry postings
+        accountBalanceService.debit(source, payment.getAmount());
+        accountBalanceService.credit(target, payment.getAmount());
+        ledgerService.postTransfer(
+                payment.getId(), sourceId, targetId, payment.getAmount(), payment.getCurrency());
+
+        payment.setStatus(PaymentStatus.COMPLETED);
+        Payment savedPayment = paymentRepository.save(payment);
+
+        log.info("Payment completed: {}", savedPayment.getId());
+
+        auditService.log(
+                "PAYMENT",
+                savedPayment.getId(),
+                AuditAction.PAYMENT_COMPLETED,
+                savedPayment.getApprovedBy().getId(),
+                MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
+                new PaymentCompletedDetails(
+                        accountBalanceService.balanceOf(source),
+                        accountBalanceService.balanceOf(target)));
+
+        return PaymentStatus.COMPLETED.name();
+    }
+
+    // Runs after the processing transaction has rolled back, so the payment is reloaded. It is
+    // left alone if another worker has claimed and settled it in the meantime.
+    private void recordFailure(UUID paymentId, String reason) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(
+                status -> {
+                    Payment payment =
+                            paymentRepository.findByIdForUpdate(paymentId).orElseThrow();
+                    if (payment.getStatus() != PaymentStatus.APPROVED) {
+                        return;
+                    }
+
+                    markFailed(payment);
+
+                    auditService.log(
+                            "PAYMENT",
+                            payment.getId(),
+                            AuditAction.PAYMENT_FAILED,
+                            payment.getApprovedBy().getId(),
+                            MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
+                            new PaymentFailedDetails(reason));
+                });
+    }
+
+    // A failed payment no longer counts towards the maker's daily limit
+    private void markFailed(Payment payment) {
+        payment.setStatus(PaymentStatus.FAILED);
+        paymentRepository.save(payment);
+
+        limitService.release(
+                payment.getCreatedBy().getId(),
+                payment.getCurrency(),
+                payment.getCreatedAt(),
+                payment.getAmount());
+    }
+}
@@ -0,0 +1,22 @@
+package com.erenalyoruk.cashgrid.payment.service;
+
+import com.erenalyoruk.cashgrid.payment.dto.PaymentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+// Serializes the creation response stored alongside each payment for idempotent replays
+@Component
+@RequiredArgsConstructor
+public class PaymentResponseCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String write(PaymentResponse response) {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    public PaymentResponse read(String snapshot) {
+        return objectMapper.readValue(snapshot, PaymentResponse.class);
+    }
+}
@@ -3,27 +3,46 @@ package com.erenalyoruk.cashgrid.payment.service;
 import com.erenalyoruk.cashgrid.account.model.Account;
 import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
 import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.PaymentCreatedDetails;
+import com.erenalyoruk.cashgrid.audit.model.PaymentRejectedDetails;
 import com.erenalyoruk.cashgrid.audit.service.AuditService;
 import com.erenalyoruk.cashgrid.auth.model.User;
 import com.erenalyoruk.cashgrid.auth.repository.UserRepository;
+import com.erenalyoruk.cashgrid.auth.security.AuthenticatedUser;
+import com.erenalyoruk.cashgrid.common.dto.PageCursor;
 import com.erenalyoruk.cashgrid.common.dto.PageResponse;
 import com.erenalyoruk.cashgrid.common.exception.BusinessException;
 import com.erenalyoruk.cashgrid.common.exception.ResourceNotFoundException;
+import com.erenalyoruk.cashgrid.common.filter.CorrelationIdFilter;
 import com.erenalyoruk.cashgrid.limit.service.LimitService;
 import com.erenalyoruk.cashgrid.payment.dto.*;
+import com.erenalyoruk.cashgrid.payment.event.PaymentApprovedEvent;
 import com.erenalyoruk.cashgrid.payment.mapper.PaymentMapper;
 import com.erenalyoruk.cashgrid.payment.model.Payment;
 import com.erenalyoruk.cashgrid.payment.model.PaymentStatus;
+import com.erenalyoruk.cashgrid.payment.repository.PaymentBatchRepository;
 import com.erenalyoruk.cashgrid.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,29 +53,51 @@ public class PaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
+    private static final Sort NEWEST_FIRST =
+            Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final PaymentRepository paymentRepository;
+    private final PaymentBatchRepository paymentBatchRepository;
+    private final PaymentResponseCodec paymentResponseCodec;
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final PaymentMapper paymentMapper;
     private final AuditService auditService;
     private final LimitService limitService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentMetrics paymentMetrics;
 
     @Transactional
-    public PaymentResponse create(CreatePaymentRequest request, String username) {
-        // Idempotency check — return existing if same key
-        Optional<Payment> existing =
-                paymentRepository.findByIdempotencyKey(request.idempotencyKey());
+    public PaymentResponse create(CreatePaymentRequest request, AuthenticatedUser maker) {
+        String currency =
+                (request.currency() != null && !request.currency().isBlank())
+                        ? request.currency().toUpperCase()
+                        : "TRY";
+
+        Timer.Sample sample = paymentMetrics.start();
+        try {
+            return createPayment(request, maker, currency, sample);
+        } catch (RuntimeException e) {
+            paymentMetrics.stop(
+                    sample, PaymentMetrics.CREATE, currency, PaymentMetrics.outcomeOf(e));
+            throw e;
+        }
+    }
+
+    private PaymentResponse createPayment(
+            CreatePaymentRequest request,
+            AuthenticatedUser maker,
+            String currency,
+            Timer.Sample sample) {
+        // Idempotency check — replay the stored response if same key
+        Optional<PaymentResponse> existing = replay(request.idempotencyKey());
         if (existing.isPresent()) {
             log.info("Idempotent request detected: {}", request.idempotencyKey());
-            return paymentMapper.toResponse(existing.get());
+            paymentMetrics.stop(
+                    sample, PaymentMetrics.CREATE, currency, PaymentMetrics.DUPLICATE);
+            return existing.get();
         }
 
-        User maker =
-                userRepository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () -> new ResourceNotFoundException("User", "username", username));
-
         String sourceIban = request.sourceIban().replaceAll("\\s", "").toUpperCase();
         String targetIban = request.targetIban().replaceAll("\\s", "").toUpperCase();
 
@@ -84,16 +125,11 @@ public class PaymentService {
             throw new BusinessException("ACCOUNT_INACTIVE", "Target account is inactive");
         }
 
-        String currency =
-                (request.currency() != null && !request.currency().isBlank())
-                        ? request.currency().toUpperCase()
-                        : "TRY";
-
-        // Limit check
-        limitService.checkLimits(maker.getRole(), currency, request.amount(), maker.getId());
-
+        // Postgres keeps microseconds; truncate so the snapshot matches the stored row
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
         Payment payment =
                 Payment.builder()
+                        .id(UUID.randomUUID())
                         .idempotencyKey(request.idempotencyKey())
                         .sourceAccount(sourceAccount)
                         .targetAccount(targetAccount)
@@ -101,114 +137,94 @@ public class PaymentService {
                         .currency(currency)
                         .description(request.description())
                         .status(PaymentStatus.PENDING)
-                        .createdBy(maker)
+                        .createdBy(maker.toUser())
+                        .createdAt(now)
+                        .updatedAt(now)
                         .build();
 
-        payment = paymentRepository.save(payment);
+        PaymentResponse response = paymentMapper.toResponse(payment);
+        if (!paymentBatchRepository.insertIfAbsent(payment, paymentResponseCodec.write(response))) {
+            // A concurrent retry with the same key inserted first
+            log.info("Idempotent request detected: {}", request.idempotencyKey());
+            PaymentResponse replayed = replay(request.idempotencyKey()).orElseThrow();
+            paymentMetrics.stop(
+                    sample, PaymentMetrics.CREATE, currency, PaymentMetrics.DUPLICATE);
+            return replayed;
+        }
 
-        log.info("Payment created: {} by {}", payment.getId(), username);
+        // Limit check — reserves today's spend; exceeding it rolls the insert back
+        limitService.reserveLimits(maker.role(), currency, request.amount(), maker.id());
+
+        log.info("Payment created: {} by {}", payment.getId(), maker.username());
 
         auditService.log(
                 "PAYMENT",
                 payment.getId(),
                 AuditAction.PAYMENT_CREATED,
-                maker.getId(),
-                MDC.get("correlationId"),
-                String.format(
-                        "{\"amount\":%s,\"sourceIban\":\"%s\",\"targetIban\":\"%s\"}",
-                        payment.getAmount(), sourceIban, targetIban));
+                maker.id(),
+                MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
+                new PaymentCreatedDetails(payment.getAmount(), sourceIban, targetIban));
 
-        return paymentMapper.toResponse(payment);
+        paymentMetrics.stop(
+                sample, PaymentMetrics.CREATE, currency, PaymentStatus.PENDING.name());
+        return response;
     }
 
+    private Optional<PaymentResponse> replay(String idempotencyKey) {
+        return paymentBatchRepository
+                .findByIdempotencyKey(idempotencyKey)
+                .map(
+                        stored ->
+                                stored.response() != null
+                                        ? paymentResponseCodec.read(stored.response())
+                                        : paymentMapper.toResponse(
+                                                paymentRepository.getReferenceById(stored.id())));
+    }
+
+    // The row is locked before the status check, so concurrent decisions on one payment
+    // serialise and only the first one applies, as in the bulk path
     @Transactional
-    public PaymentResponse approve(UUID paymentId, String checkerUsername) {
+    public PaymentResponse approve(UUID paymentId, AuthenticatedUser checker) {
         Payment payment =
                 paymentRepository
-                        .findById(paymentId)
+                        .findByIdForUpdate(paymentId)
                         .orElseThrow(
                                 () -> new ResourceNotFoundException("Payment", "id", paymentId));
 
-        User checker =
-                userRepository
-                        .findByUsername(checkerUsername)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "User", "username", checkerUsername));
-
-        // Maker-Checker: maker cannot approve own payment
-        if (payment.getCreatedBy().getId().equals(checker.getId())) {
-            throw new BusinessException("SELF_APPROVAL", "Maker cannot approve their own payment");
-        }
-
-        if (!payment.getStatus().canTransitionTo(PaymentStatus.APPROVED)) {
-            throw new BusinessException(
-                    "INVALID_TRANSITION",
-                    String.format("Cannot transition from %s to APPROVED", payment.getStatus()));
-        }
-
-        payment.setStatus(PaymentStatus.APPROVED);
-        payment.setApprovedBy(checker);
-        payment = paymentRepository.save(payment);
-
-        log.info("Payment approved: {} by {}", payment.getId(), checkerUsername);
-
-        auditService.log(
-                "PAYMENT",
-                payment.getId(),
-                AuditAction.PAYMENT_APPROVED,
-                checker.getId(),
-                MDC.get("correlationId"),
-                null);
-
-        // Trigger processing
-        return processPayment(payment);
+        return toDecidedResponse(applyApproval(payment, checker), checker);
     }
 
     @Transactional
     public PaymentResponse reject(
-            UUID paymentId, RejectPaymentRequest request, String checkerUsername) {
+            UUID paymentId, RejectPaymentRequest request, AuthenticatedUser checker) {
         Payment payment =
                 paymentRepository
-                        .findById(paymentId)
+                        .findByIdForUpdate(paymentId)
                         .orElseThrow(
                                 () -> new ResourceNotFoundException("Payment", "id", paymentId));
 
-        User checker =
-                userRepository
-                        .findByUsername(checkerUsername)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "User", "username", checkerUsername));
-
-        if (payment.getCreatedBy().getId().equals(checker.getId())) {
-            throw new BusinessException("SELF_REJECTION", "Maker cannot reject their own payment");
-        }
-
-        if (!payment.getStatus().canTransitionTo(PaymentStatus.REJECTED)) {
-            throw new BusinessException(
-                    "INVALID_TRANSITION",
-                    String.format("Cannot transition from %s to REJECTED", payment.getStatus()));
-        }
-
-        payment.setStatus(PaymentStatus.REJECTED);
-        payment.setApprovedBy(checker);
-        payment.setRejectionReason(request.reason());
-        payment = paymentRepository.save(payment);
+        return toDecidedResponse(applyRejection(payment, checker, request.reason()), checker);
+    }
 
-        log.info("Payment rejected: {} by {}", payment.getId(), checkerUsername);
+    @Transactional
+    public BulkPaymentResponse bulkApprove(BulkApproveRequest request, AuthenticatedUser checker) {
+        return bulkTransition(request.paymentIds(), checker, this::applyApproval);
+    }
 
-        auditService.log(
-                "PAYMENT",
-                payment.getId(),
-                AuditAction.PAYMENT_REJECTED,
-                checker.getId(),
-                MDC.get("correlationId"),
-                String.format("{\"reason\":\"%s\"}", request.reason()));
+    @Transactional
+    public BulkPaymentResponse bulkReject(BulkRejectRequest request, AuthenticatedUser checker) {
+        return bulkTransition(
+                request.paymentIds(),
+                checker,
+                (payment, user) -> applyRejection(payment, user, request.reason()));
+    }
 
-        return paymentMapper.toResponse(payment);
+    // The checker is the caller, so the approver name comes from the principal rather than
+    // loading the user row behind the approvedBy reference
+    private PaymentResponse toDecidedResponse(Payment payment, AuthenticatedUser checker) {
+        return paymentMapper.toResponseWithoutApprover(payment).toBuilder()
+                .approvedByUsername(checker.username())
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -221,16 +237,23 @@ public class PaymentService {
         return paymentMapper.toResponse(payment);
     }
 
+    // Offset pages with totals by default. A cursor (blank for the first page) switches to keyset
+    // pagination, and withTotal=false skips the COUNT for offset pages.
     @Transactional(readOnly = true)
-    public PageResponse<PaymentResponse> list(int page, int size, String status, String username) {
+    public PageResponse<PaymentResponse> list(
+            int page,
+            int size,
+            String status,
+            String username,
+            String cursor,
+            boolean withTotal) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Payment> paymentPage;
+        PaymentStatus paymentStatus = null;
+        UUID createdById = null;
 
         if (status != null && !status.isBlank()) {
             try {
-                PaymentStatus ps = PaymentStatus.valueOf(status.toUpperCase());
-                paymentPage = paymentRepository.findByStatus(ps, pageable);
+                paymentStatus = PaymentStatus.valueOf(status.toUpperCase());
             } catch (IllegalArgumentException e) {
                 throw new BusinessException("INVALID_STATUS", "Invalid status: " + status);
             }
@@ -242,138 +265,218 @@ public class PaymentService {
                                     () ->
                                             new ResourceNotFoundException(
                                                     "User", "username", username));
-            paymentPage = paymentRepository.findByCreatedById(user.getId(), pageable);
+            createdById = user.getId();
+        }
+
+        if (cursor != null || !withTotal) {
+            PageCursor after = PageCursor.decode(cursor);
+            Pageable pageable = PageRequest.of(cursor != null ? 0 : page, size);
+
+            Slice<Payment> slice;
+            if (paymentStatus != null) {
+                slice =
+                        paymentRepository.findByStatusAfter(
+                                paymentStatus, after.createdAt(), after.id(), pageable);
+            } else if (createdById != null) {
+                slice =
+                        paymentRepository.findByCreatedByIdAfter(
+                                createdById, after.createdAt(), after.id(), pageable);
+            } else {
+                slice = paymentRepository.findAfter(after.createdAt(), after.id(), pageable);
+            }
+            return toPageResponse(slice);
+        }
+
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
+        Page<Payment> paymentPage;
+
+        if (paymentStatus != null) {
+            paymentPage = paymentRepository.findByStatus(paymentStatus, pageable);
+        } else if (createdById != null) {
+            paymentPage = paymentRepository.findByCreatedById(createdById, pageable);
         } else {
-            paymentPage = paymentRepository.findAll(pageable);
+            paymentPage = paymentRepository.findAllWithParties(pageable);
         }
 
-        return PageResponse.<PaymentResponse>builder()
-                .content(paymentPage.getContent().stream().map(paymentMapper::toResponse).toList())
-                .page(paymentPage.getNumber())
-                .size(paymentPage.getSize())
-                .totalElements(paymentPage.getTotalElements())
-                .totalPages(paymentPage.getTotalPages())
-                .last(paymentPage.isLast())
-                .build();
+        return toPageResponse(paymentPage);
     }
 
     @Transactional(readOnly = true)
     public PageResponse<PaymentResponse> listPendingForChecker(
-            int page, int size, String checkerUsername) {
-
-        User checker =
-                userRepository
-                        .findByUsername(checkerUsername)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "User", "username", checkerUsername));
+            int page, int size, AuthenticatedUser checker, String cursor, boolean withTotal) {
+
+        if (cursor != null || !withTotal) {
+            PageCursor after = PageCursor.decode(cursor);
+            Pageable pageable = PageRequest.of(cursor != null ? 0 : page, size);
+
+            return toPageResponse(
+                    paymentRepository.findPendingForCheckerAfter(
+                            PaymentStatus.PENDING,
+                            checker.id(),
+                            after.createdAt(),
+                            after.id(),
+                            pageable));
+        }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
 
         Page<Payment> paymentPage =
                 paymentRepository.findPendingForChecker(
-                        PaymentStatus.PENDING, checker.getId(), pageable);
-
-        return PageResponse.<PaymentResponse>builder()
-                .content(paymentPage.getContent().stream().map(paymentMapper::toResponse).toList())
-                .page(paymentPage.getNumber())
-                .size(paymentPage.getSize())
-                .totalElements(paymentPage.getTotalElements())
-                .totalPages(paymentPage.getTotalPages())
-                .last(paymentPage.isLast())
+                        PaymentStatus.PENDING, checker.id(), pageable);
+
+        return toPageResponse(paymentPage);
+    }
+
+    // Totals only when the slice came from a counted Page query
+    private PageResponse<PaymentResponse> toPageResponse(Slice<Payment> slice) {
+        List<Payment> payments = slice.getContent();
+
+        PageResponse.PageResponseBuilder<PaymentResponse> response =
+                PageResponse.<PaymentResponse>builder()
+                        .content(payments.stream().map(paymentMapper::toResponse).toList())
+                        .page(slice.getNumber())
+                        .size(slice.getSize())
+                        .last(!slice.hasNext());
+
+        if (slice.hasNext()) {
+            Payment lastPayment = payments.get(payments.size() - 1);
+            response.nextCursor(
+                    new PageCursor(lastPayment.getCreatedAt(), lastPayment.getId()).encode());
+        }
+        if (slice instanceof Page<Payment> paymentPage) {
+            response.totalElements(paymentPage.getTotalElements())
+                    .totalPages(paymentPage.getTotalPages());
+        }
+
+        return response.build();
+    }
+
+    private BulkPaymentResponse bulkTransition(
+            List<UUID> paymentIds,
+            AuthenticatedUser checker,
+            BiFunction<Payment, AuthenticatedUser, Payment> transition) {
+
+        // Rows are locked in id order, so overlapping bulk requests cannot deadlock
+        Set<UUID> ids = new LinkedHashSet<>(paymentIds);
+        Map<UUID, Payment> payments = new HashMap<>();
+        for (Payment payment : paymentRepository.findAllByIdForUpdate(ids)) {
+            payments.put(payment.getId(), payment);
+        }
+
+        List<BulkPaymentResult> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Payment payment = payments.get(id);
+            if (payment == null) {
+                String message = new ResourceNotFoundException("Payment", "id", id).getMessage();
+                results.add(BulkPaymentResult.failed(id, "RESOURCE_NOT_FOUND", message));
+                continue;
+            }
+
+            try {
+                Payment updated = transition.apply(payment, checker);
+                results.add(BulkPaymentResult.succeeded(id, updated.getStatus().name()));
+            } catch (BusinessException e) {
+                results.add(BulkPaymentResult.failed(id, e.getErrorCode(), e.getMessage()));
+            }
+        }
+
+        long succeeded = results.stream().filter(BulkPaymentResult::success).count();
+
+        log.info(
+                "Bulk transition by {}: {} requested, {} succeeded",
+                checker.username(),
+                ids.size(),
+                succeeded);
+
+        return BulkPaymentResponse.builder()
+                .total(results.size())
+                .succeeded((int) succeeded)
+                .failed(results.size() - (int) succeeded)
+                .results(results)
                 .build();
     }
 
-    private PaymentResponse processPayment(Payment payment) {
-        payment.setStatus(PaymentStatus.PROCESSING);
-        paymentRepository.save(payment);
+    private Payment applyApproval(Payment payment, AuthenticatedUser checker) {
+        return paymentMetrics.time(
+                PaymentMetrics.APPROVE,
+                payment.getCurrency(),
+                approved -> approved.getStatus().name(),
+                () -> approvePayment(payment, checker));
+    }
+
+    private Payment approvePayment(Payment payment, AuthenticatedUser checker) {
+        // Maker-Checker: maker cannot approve own payment
+        if (payment.getCreatedBy().getId().equals(checker.id())) {
+            throw new BusinessException("SELF_APPROVAL", "Maker cannot approve their own payment");
+        }
+
+        if (!payment.getStatus().canTransitionTo(PaymentStatus.APPROVED)) {
+            throw new BusinessException(
+                    "INVALID_TRANSITION",
+                    String.format("Cannot transition from %s to APPROVED", payment.getStatus()));
+        }
+
+        payment.setStatus(PaymentStatus.APPROVED);
+        payment.setApprovedBy(userRepository.getReferenceById(checker.id()));
+        payment.setCorrelationId(MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY));
+        payment = paymentRepository.save(payment);
+
+        log.info("Payment approved: {} by {}", payment.getId(), checker.username());
 
         auditService.log(
                 "PAYMENT",
                 payment.getId(),
-                AuditAction.PAYMENT_PROCESSING,
-                payment.getApprovedBy().getId(),
-                MDC.get("correlationId"),
+                AuditAction.PAYMENT_APPROVED,
+                checker.id(),
+                MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
                 null);
 
-        try {
-            // Lock accounts to prevent race conditions
-            Account source =
-                    accountRepository
-                            .findByIdForUpdate(payment.getSourceAccount().getId())
-                            .orElseThrow(
-                                    () ->
-                                            new ResourceNotFoundException(
-                                                    "Account",
-                                                    "id",
-                                                    payment.getSourceAccount().getId()));
-
-            Account target =
-                    accountRepository
-                            .findByIdForUpdate(payment.getTargetAccount().getId())
-                            .orElseThrow(
-                                    () ->
-                                            new ResourceNotFoundException(
-                                                    "Account",
-                                                    "id",
-                                                    payment.getTargetAccount().getId()));
-
-            // Insufficient balance check
-            if (source.getBalance().compareTo(payment.getAmount()) < 0) {
-                payment.setStatus(PaymentStatus.FAILED);
-                paymentRepository.save(payment);
-
-                auditService.log(
-                        "PAYMENT",
-                        payment.getId(),
-                        AuditAction.PAYMENT_FAILED,
-                        payment.getApprovedBy().getId(),
-                        MDC.get("correlationId"),
-                        "{\"reason\":\"Insufficient balance\"}");
-
-                return paymentMapper.toResponse(payment);
-            }
-
-            // Transfer
-            source.setBalance(source.getBalance().subtract(payment.getAmount()));
-            target.setBalance(target.getBalance().add(payment.getAmount()));
+        // Transfer runs asynchronously on the processing workers once this commits
+        eventPublisher.publishEvent(new PaymentApprovedEvent(payment.getId()));
 
-            accountRepository.save(source);
-            accountRepository.save(target);
+        return payment;
+    }
 
-            payment.setStatus(PaymentStatus.COMPLETED);
-            Payment savedPayment = paymentRepository.save(payment);
+    private Payment applyRejection(Payment payment, AuthenticatedUser checker, String reason) {
+        return paymentMetrics.time(
+                PaymentMetrics.REJECT,
+                payment.getCurrency(),
+                rejected -> rejected.getStatus().name(),
+                () -> rejectPayment(payment, checker, reason));
+    }
 
-            log.info("Payment completed: {}", savedPayment.getId());
+    private Payment rejectPayment(Payment payment, AuthenticatedUser checker, String reason) {
+        if (payment.getCreatedBy().getId().equals(checker.id())) {
+            throw new BusinessException("SELF_REJECTION", "Maker cannot reject their own payment");
+        }
 
-            auditService.log(
-                    "PAYMENT",
-                    savedPayment.getId(),
-                    AuditAction.PAYMENT_COMPLETED,
-                    savedPayment.getApprovedBy().getId(),
-                    MDC.get("correlationId"),
-                    String.format(
-                            "{\"sourceBalance\":%s,\"targetBalance\":%s}",
-                            source.getBalance(), target.getBalance()));
+        if (!payment.getStatus().canTransitionTo(PaymentStatus.REJECTED)) {
+            throw new BusinessException(
+                    "INVALID_TRANSITION",
+                    String.format("Cannot transition from %s to REJECTED", payment.getStatus()));
+        }
 
-            return paymentMapper.toResponse(savedPayment);
+        payment.setStatus(PaymentStatus.REJECTED);
+        payment.setApprovedBy(userRepository.getReferenceById(checker.id()));
+        payment.setRejectionReason(reason);
+        payment = paymentRepository.save(payment);
 
-        } catch (Exception e) {
-            log.error("Payment processing failed: {}", payment.getId(), e);
+        limitService.release(
+                payment.getCreatedBy().getId(),
+                payment.getCurrency(),
+                payment.getCreatedAt(),
+                payment.getAmount());
 
-            payment.setStatus(PaymentStatus.FAILED);
-            paymentRepository.save(payment);
+        log.info("Payment rejected: {} by {}", payment.getId(), checker.username());
 
-            auditService.log(
-                    "PAYMENT",
-                    payment.getId(),
-                    AuditAction.PAYMENT_FAILED,
-                    payment.getApprovedBy().getId(),
-                    MDC.get("correlationId"),
-                    String.format("{\"reason\":\"%s\"}", e.getMessage()));
+        auditService.log(
+                "PAYMENT",
+                payment.getId(),
+                AuditAction.PAYMENT_REJECTED,
+                checker.id(),
+                MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY),
+                new PaymentRejectedDetails(reason));
 
-            return paymentMapper.toResponse(payment);
-        }
+        return payment;
     }
 }
@@ -0,0 +1,9 @@
+-- Keyset pagination walks (created_at DESC, id DESC), optionally within a status or maker
+DROP INDEX idx_payments_created_at;
+DROP INDEX idx_payments_created_by;
+DROP INDEX idx_payments_status;
+
+CREATE INDEX idx_payments_created_at_id ON payments (created_at DESC, id DESC);
+CREATE INDEX idx_payments_status_created_at_id ON payments (status, created_at DESC, id DESC);
+CREATE INDEX idx_payments_created_by_created_at_id
+    ON payments (created_by, created_at DESC, id DESC);
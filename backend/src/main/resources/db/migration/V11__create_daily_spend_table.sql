@@ -0,0 +1,9 @@
+-- Running daily total per maker and currency, reserved atomically on payment creation.
+-- Backfilled by V20, which needs the configured business zone
+CREATE TABLE daily_spend (
+    user_id         UUID            NOT NULL REFERENCES users(id),
+    currency        VARCHAR(3)      NOT NULL,
+    business_date   DATE            NOT NULL,
+    spent           DECIMAL(18, 2)  NOT NULL DEFAULT 0.00 CHECK (spent >= 0),
+    PRIMARY KEY (user_id, currency, business_date)
+);
@@ -0,0 +1,14 @@
+-- Every change to limits bumps a version and notifies listening nodes on commit
+CREATE SEQUENCE limit_version_seq;
+SELECT setval('limit_version_seq', 1);
+
+CREATE FUNCTION notify_limits_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('limits_changed', nextval('limit_version_seq')::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_limits_changed
+    AFTER INSERT OR UPDATE OR DELETE ON limits
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_limits_changed();
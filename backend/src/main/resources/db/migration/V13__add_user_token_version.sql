@@ -0,0 +1,2 @@
+-- Carried in issued tokens; bumping it invalidates every token issued before
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Token buckets shared by all nodes for rate-limit policies in DISTRIBUTED mode
+CREATE TABLE rate_limit_buckets (
+    policy          VARCHAR(50)         NOT NULL,
+    client_key      BIGINT              NOT NULL,
+    tokens          DOUBLE PRECISION    NOT NULL,
+    granted         INTEGER             NOT NULL,
+    refilled_at     TIMESTAMP           NOT NULL,
+    PRIMARY KEY (policy, client_key)
+);
+
+CREATE INDEX idx_rate_limit_buckets_refilled_at ON rate_limit_buckets (refilled_at);
@@ -0,0 +1,4 @@
+-- Audit search walks (created_at DESC, id DESC) by keyset
+DROP INDEX idx_audit_created_at;
+
+CREATE INDEX idx_audit_created_at_id ON audit_logs (created_at DESC, id DESC);
@@ -0,0 +1,62 @@
+-- audit_logs becomes range-partitioned by month on created_at. The primary key has to include
+-- the partition key. AuditPartitionMaintainer keeps creating partitions ahead of time. There is
+-- no default partition: it would rule out DETACH PARTITION CONCURRENTLY for old months.
+--
+-- Deploy cost: the existing rows are copied inside this migration, which holds audit_logs for
+-- its whole run, so audit writes wait until it commits. The rows are loaded before the indexes
+-- are built, so the copy is one sequential pass plus one sort per index, but on a table with
+-- hundreds of millions of rows this is still a long blocking step: deploy it in a maintenance
+-- window, or archive and drop old rows first so less is left to copy.
+ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+ALTER TABLE audit_logs_unpartitioned DROP CONSTRAINT audit_logs_pkey;
+DROP INDEX idx_audit_entity;
+DROP INDEX idx_audit_performed_by;
+DROP INDEX idx_audit_action;
+DROP INDEX idx_audit_correlation;
+DROP INDEX idx_audit_created_at_id;
+
+CREATE TABLE audit_logs (
+    id              UUID            NOT NULL DEFAULT gen_random_uuid(),
+    entity_type     VARCHAR(50)     NOT NULL,
+    entity_id       UUID            NOT NULL,
+    action          VARCHAR(30)     NOT NULL,
+    performed_by    UUID            NOT NULL REFERENCES users(id),
+    correlation_id  VARCHAR(64),
+    details         JSONB,
+    created_at      TIMESTAMP       NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Every month that holds rows, up to three months ahead
+DO $$
+DECLARE
+    part_month DATE;
+    last_month DATE;
+BEGIN
+    SELECT date_trunc('month', LEAST(COALESCE(MIN(created_at), LOCALTIMESTAMP), LOCALTIMESTAMP)),
+           date_trunc('month', GREATEST(COALESCE(MAX(created_at), LOCALTIMESTAMP),
+                                        LOCALTIMESTAMP + INTERVAL '3 months'))
+    INTO part_month, last_month
+    FROM audit_logs_unpartitioned;
+
+    WHILE part_month <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_p' || to_char(part_month, 'YYYY_MM'),
+            part_month,
+            part_month + INTERVAL '1 month');
+        part_month := part_month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs
+SELECT id, entity_type, entity_id, action, performed_by, correlation_id, details, created_at
+FROM audit_logs_unpartitioned;
+
+DROP TABLE audit_logs_unpartitioned;
+
+CREATE INDEX idx_audit_entity ON audit_logs (entity_type, entity_id);
+CREATE INDEX idx_audit_performed_by ON audit_logs (performed_by);
+CREATE INDEX idx_audit_action ON audit_logs (action);
+CREATE INDEX idx_audit_correlation ON audit_logs (correlation_id);
+CREATE INDEX idx_audit_created_at_id ON audit_logs (created_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Every audit entry links to the previous entry of its chain: hash = SHA-256 over the previous
+-- hash and the entry's fields. Entries are spread over several chains by entity so concurrent
+-- writers rarely wait on the same head. Rows written before this migration stay unchained.
+ALTER TABLE audit_logs
+    ADD COLUMN chain_no     INTEGER,
+    ADD COLUMN chain_seq    BIGINT,
+    ADD COLUMN hash         BYTEA;
+
+CREATE INDEX idx_audit_chain ON audit_logs (chain_no, chain_seq);
+
+-- The newest link of each chain, locked while a transaction appends to it
+CREATE TABLE audit_chain_heads (
+    chain_no        INTEGER         PRIMARY KEY,
+    last_seq        BIGINT          NOT NULL DEFAULT 0,
+    last_hash       BYTEA
+);
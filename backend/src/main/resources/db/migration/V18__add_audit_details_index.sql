@@ -0,0 +1,3 @@
+-- Containment searches on details (details @> '{"sourceIban": "..."}'). jsonb_path_ops only
+-- supports @> and jsonpath matches, but is smaller and faster than the default operator class.
+CREATE INDEX idx_audit_details ON audit_logs USING gin (details jsonb_path_ops);
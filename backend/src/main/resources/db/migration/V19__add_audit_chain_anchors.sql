@@ -0,0 +1,5 @@
+-- The last link of each chain that left audit_logs through retention or archiving. Verification
+-- continues from it, so removing links from the front of a chain shows up as a missing link.
+ALTER TABLE audit_chain_heads
+    ADD COLUMN anchor_seq   BIGINT          NOT NULL DEFAULT 0,
+    ADD COLUMN anchor_hash  BYTEA;
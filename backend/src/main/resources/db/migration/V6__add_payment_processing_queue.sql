@@ -0,0 +1,4 @@
+ALTER TABLE payments ADD COLUMN correlation_id VARCHAR(64);
+
+-- Processing queue: workers claim approved payments oldest-first
+CREATE INDEX idx_payments_approved_queue ON payments (updated_at) WHERE status = 'APPROVED';
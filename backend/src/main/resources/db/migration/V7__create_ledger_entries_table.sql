@@ -0,0 +1,21 @@
+CREATE TABLE ledger_entries (
+    id              UUID            PRIMARY KEY DEFAULT gen_random_uuid(),
+    account_id      UUID            NOT NULL REFERENCES accounts(id),
+    payment_id      UUID            NOT NULL REFERENCES payments(id),
+    direction       VARCHAR(6)      NOT NULL CHECK (direction IN ('DEBIT', 'CREDIT')),
+    amount          DECIMAL(18, 2)  NOT NULL CHECK (amount > 0),
+    currency        VARCHAR(3)      NOT NULL,
+    posted_at       TIMESTAMP       NOT NULL DEFAULT now(),
+    UNIQUE (payment_id, direction)
+);
+
+CREATE INDEX idx_ledger_account_posted ON ledger_entries (account_id, posted_at DESC);
+
+-- Backfill postings for transfers completed before the ledger existed
+INSERT INTO ledger_entries (account_id, payment_id, direction, amount, currency, posted_at)
+SELECT source_account_id, id, 'DEBIT', amount, currency, updated_at
+FROM payments WHERE status = 'COMPLETED';
+
+INSERT INTO ledger_entries (account_id, payment_id, direction, amount, currency, posted_at)
+SELECT target_account_id, id, 'CREDIT', amount, currency, updated_at
+FROM payments WHERE status = 'COMPLETED';
@@ -0,0 +1,11 @@
+-- Hot accounts spread their balance over N shard rows; 0 means the balance lives on accounts
+ALTER TABLE accounts ADD COLUMN balance_shards INTEGER NOT NULL DEFAULT 0
+    CHECK (balance_shards >= 0);
+
+CREATE TABLE account_balance_shards (
+    account_id      UUID            NOT NULL REFERENCES accounts(id),
+    shard_no        INTEGER         NOT NULL,
+    balance         DECIMAL(18, 2)  NOT NULL DEFAULT 0.00 CHECK (balance >= 0),
+    updated_at      TIMESTAMP       NOT NULL DEFAULT now(),
+    PRIMARY KEY (account_id, shard_no)
+);
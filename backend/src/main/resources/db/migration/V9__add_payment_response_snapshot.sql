@@ -0,0 +1,2 @@
+-- Response returned when the payment was created, replayed verbatim for retried idempotency keys
+ALTER TABLE payments ADD COLUMN create_response JSONB;
@@ -3,8 +3,8 @@ package com.erenalyoruk.cashgrid;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
+import com.erenalyoruk.cashgrid.common.filter.ConcurrencyLimitFilter;
 import com.erenalyoruk.cashgrid.common.filter.CorrelationIdFilter;
-import com.erenalyoruk.cashgrid.common.filter.RateLimitFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,14 +40,14 @@ public abstract class BaseIntegrationTest {
 
     @Autowired private CorrelationIdFilter correlationIdFilter;
 
-    @Autowired private RateLimitFilter rateLimitFilter;
+    @Autowired private ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @BeforeEach
     void setUpBase() {
         this.mockMvc =
                 webAppContextSetup(webApplicationContext)
                         .apply(springSecurity())
-                        .addFilters(correlationIdFilter, rateLimitFilter)
+                        .addFilters(correlationIdFilter, concurrencyLimitFilter)
                         .build();
     }
 
@@ -56,5 +56,8 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add(
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                StatementCounter.class::getName);
     }
 }
@@ -0,0 +1,24 @@
+package com.erenalyoruk.cashgrid;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts SQL statements Hibernate prepares on the current thread. MockMvc requests run on the
+// test thread, so background payment workers don't skew the numbers.
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.set(COUNT.get() + 1);
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+}
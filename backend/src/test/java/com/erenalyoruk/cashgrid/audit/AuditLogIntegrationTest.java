@@ -8,22 +8,77 @@ import com.erenalyoruk.cashgrid.TestHelper;
 import com.erenalyoruk.cashgrid.account.model.Account;
 import com.erenalyoruk.cashgrid.account.model.Currency;
 import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
+import com.erenalyoruk.cashgrid.audit.archive.AuditArchive;
+import com.erenalyoruk.cashgrid.audit.archive.AuditSegmentWriter;
+import com.erenalyoruk.cashgrid.audit.model.AuditAction;
+import com.erenalyoruk.cashgrid.audit.model.AuditLog;
+import com.erenalyoruk.cashgrid.audit.model.PaymentCreatedDetails;
+import com.erenalyoruk.cashgrid.audit.model.PaymentFailedDetails;
+import com.erenalyoruk.cashgrid.audit.repository.AuditChainRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditLogRepository;
+import com.erenalyoruk.cashgrid.audit.repository.AuditPartitionRepository;
+import com.erenalyoruk.cashgrid.audit.service.AuditArchiveService;
+import com.erenalyoruk.cashgrid.audit.service.AuditChainWriter;
+import com.erenalyoruk.cashgrid.audit.service.AuditPartitionService;
+import com.erenalyoruk.cashgrid.audit.service.AuditService;
+import com.erenalyoruk.cashgrid.auth.repository.UserRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class AuditLogIntegrationTest extends BaseIntegrationTest {
 
     @Autowired private AccountRepository accountRepository;
 
+    @Autowired private AuditLogRepository auditLogRepository;
+
+    @Autowired private AuditService auditService;
+
+    @Autowired private UserRepository userRepository;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Autowired private AuditPartitionRepository auditPartitionRepository;
+
+    @Autowired private AuditPartitionService auditPartitionService;
+
+    @Autowired private AuditArchiveService auditArchiveService;
+
+    @Autowired private AuditArchive auditArchive;
+
+    @Autowired private AuditChainWriter auditChainWriter;
+
+    @Autowired private AuditChainRepository auditChainRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
     private TestHelper helper;
 
     private static final String SOURCE_IBAN = "TR130006200000000000000099";
     private static final String TARGET_IBAN = "TR190006200000000000000088";
 
+    private static final long LOCK_TIMEOUT_MS = 5_000;
+
     @BeforeEach
     void setUp() {
         helper = new TestHelper(mockMvc, objectMapper);
@@ -118,20 +173,30 @@ class AuditLogIntegrationTest extends BaseIntegrationTest {
         mockMvc.perform(
                         post("/api/v1/payments/" + paymentId + "/approve")
                                 .header("Authorization", "Bearer " + checkerToken))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status").value("COMPLETED"));
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
 
-        // Query audit logs by entity
-        mockMvc.perform(
-                        get("/api/v1/audit-logs/entity/PAYMENT/" + paymentId)
-                                .header("Authorization", "Bearer " + adminToken)
-                                .param("page", "0")
-                                .param("size", "20"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content").isArray())
-                .andExpect(
-                        jsonPath("$.content.length()")
-                                .value(org.hamcrest.Matchers.greaterThanOrEqualTo(3)));
+        // Created, approved, processing and completed once the workers pick it up
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .untilAsserted(
+                        () ->
+                                mockMvc.perform(
+                                                get("/api/v1/audit-logs/entity/PAYMENT/"
+                                                                + paymentId)
+                                                        .header(
+                                                                "Authorization",
+                                                                "Bearer " + adminToken)
+                                                        .param("page", "0")
+                                                        .param("size", "20"))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.content").isArray())
+                                        .andExpect(
+                                                jsonPath("$.content.length()")
+                                                        .value(
+                                                                org.hamcrest.Matchers
+                                                                        .greaterThanOrEqualTo(
+                                                                                4))));
     }
 
     @Test
@@ -254,7 +319,7 @@ class AuditLogIntegrationTest extends BaseIntegrationTest {
                         post("/api/v1/payments/" + paymentId + "/reject")
                                 .header("Authorization", "Bearer " + checkerToken)
                                 .contentType(MediaType.APPLICATION_JSON)
-                                .content("{\"reason\":\"Audit test rejection\"}"))
+                                .content("{\"reason\":\"Audit \\\"test\\\" rejection\"}"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("REJECTED"));
 
@@ -275,6 +340,10 @@ class AuditLogIntegrationTest extends BaseIntegrationTest {
         for (JsonNode entry : content) {
             if ("PAYMENT_REJECTED".equals(entry.get("action").asText())) {
                 hasRejection = true;
+                // Quotes in the reason must still leave valid JSON behind
+                JsonNode details = objectMapper.readTree(entry.get("details").asText());
+                Assertions.assertEquals(
+                        "Audit \"test\" rejection", details.get("reason").asText());
                 break;
             }
         }
@@ -339,4 +408,621 @@ class AuditLogIntegrationTest extends BaseIntegrationTest {
                         jsonPath("$.content.length()")
                                 .value(org.hamcrest.Matchers.greaterThanOrEqualTo(1)));
     }
+
+    @Test
+    @Order(7)
+    @DisplayName("Audit log — entries commit and roll back with the caller's transaction")
+    void auditEntriesFollowTransaction() throws Exception {
+        getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        String rolledBack = "test-rollback-" + System.nanoTime();
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () ->
+                        transactionTemplate.executeWithoutResult(
+                                status -> {
+                                    auditService.log(
+                                            "PAYMENT",
+                                            UUID.randomUUID(),
+                                            AuditAction.PAYMENT_CREATED,
+                                            adminId,
+                                            rolledBack,
+                                            null);
+                                    throw new IllegalStateException("rollback");
+                                }));
+        Assertions.assertTrue(
+                auditLogRepository
+                        .findByCorrelationId(rolledBack, PageRequest.of(0, 10))
+                        .isEmpty());
+
+        String committed = "test-commit-" + System.nanoTime();
+        UUID entityId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(
+                status -> {
+                    auditService.log(
+                            "PAYMENT",
+                            entityId,
+                            AuditAction.PAYMENT_PROCESSING,
+                            adminId,
+                            committed,
+                            null);
+                    auditService.log(
+                            "PAYMENT",
+                            entityId,
+                            AuditAction.PAYMENT_COMPLETED,
+                            adminId,
+                            committed,
+                            "{\"sourceBalance\":1}");
+                });
+
+        List<AuditAction> actions =
+                auditLogRepository
+                        .findByCorrelationId(committed, PageRequest.of(0, 10))
+                        .map(AuditLog::getAction)
+                        .getContent();
+        Assertions.assertEquals(2, actions.size());
+        Assertions.assertTrue(
+                actions.containsAll(
+                        List.of(AuditAction.PAYMENT_PROCESSING, AuditAction.PAYMENT_COMPLETED)));
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Audit log — search pages by cursor without a COUNT by default")
+    void searchKeysetPages() throws Exception {
+        String adminToken = getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+
+        String correlationId = "test-keyset-" + System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            auditService.log(
+                    "PAYMENT",
+                    UUID.randomUUID(),
+                    AuditAction.PAYMENT_CREATED,
+                    adminId,
+                    correlationId,
+                    null);
+        }
+
+        String firstPage =
+                mockMvc.perform(
+                                get("/api/v1/audit-logs")
+                                        .header("Authorization", "Bearer " + adminToken)
+                                        .param("correlationId", correlationId)
+                                        .param("size", "2")
+                                        .param("estimateTotal", "true"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(2))
+                        .andExpect(jsonPath("$.last").value(false))
+                        .andExpect(jsonPath("$.totalElements").doesNotExist())
+                        .andExpect(jsonPath("$.estimatedTotal").isNumber())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        JsonNode first = objectMapper.readTree(firstPage);
+
+        String secondPage =
+                mockMvc.perform(
+                                get("/api/v1/audit-logs")
+                                        .header("Authorization", "Bearer " + adminToken)
+                                        .param("correlationId", correlationId)
+                                        .param("size", "2")
+                                        .param("cursor", first.get("nextCursor").asText()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(1))
+                        .andExpect(jsonPath("$.last").value(true))
+                        .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String lastId = objectMapper.readTree(secondPage).get("content").get(0).get("id").asText();
+        for (JsonNode entry : first.get("content")) {
+            Assertions.assertNotEquals(lastId, entry.get("id").asText());
+        }
+
+        // The exact count is still available on request
+        mockMvc.perform(
+                        get("/api/v1/audit-logs")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("correlationId", correlationId)
+                                .param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3));
+
+        // Without a COUNT, later pages are only reachable through the cursor
+        mockMvc.perform(
+                        get("/api/v1/audit-logs")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("correlationId", correlationId)
+                                .param("size", "2")
+                                .param("page", "1"))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_PAGE"));
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Audit log — partitions are kept ahead and old months leave by retention")
+    void partitionMaintenanceAndRetention() throws Exception {
+        getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+
+        auditPartitionService.maintain();
+        YearMonth current = auditPartitionRepository.currentMonth();
+        Assertions.assertTrue(
+                auditPartitionRepository.findPartitions().contains(current.plusMonths(3)));
+
+        YearMonth old = YearMonth.of(2001, 1);
+        auditPartitionRepository.createPartition(old, LOCK_TIMEOUT_MS);
+        String correlationId = "test-retention-" + System.nanoTime();
+        auditLogRepository.insertBatch(
+                List.of(
+                        AuditLog.builder()
+                                .entityType("PAYMENT")
+                                .entityId(UUID.randomUUID())
+                                .action(AuditAction.PAYMENT_CREATED)
+                                .performedBy(adminId)
+                                .correlationId(correlationId)
+                                .createdAt(Instant.parse("2001-01-15T12:00:00Z"))
+                                .build()));
+        Assertions.assertEquals(
+                1,
+                auditLogRepository
+                        .findByCorrelationId(correlationId, PageRequest.of(0, 10))
+                        .getTotalElements());
+
+        Assertions.assertEquals(
+                List.of(old), auditPartitionService.applyRetention(YearMonth.of(2001, 2)));
+        Assertions.assertTrue(
+                auditLogRepository
+                        .findByCorrelationId(correlationId, PageRequest.of(0, 10))
+                        .isEmpty());
+        // Detached, not dropped
+        Assertions.assertNotNull(
+                jdbcTemplate.queryForObject(
+                        "SELECT to_regclass('audit_logs_p2001_01')::text", String.class));
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Audit log — archived months are dropped and still found by entity")
+    void archivedMonthStillReadable() throws Exception {
+        String adminToken = getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+
+        YearMonth month = YearMonth.of(2002, 3);
+        auditPartitionRepository.createPartition(month, LOCK_TIMEOUT_MS);
+        UUID entityId = UUID.randomUUID();
+        String correlationId = "test-archive-" + System.nanoTime();
+        // Chain columns outside the real chains, so verification ignores this entry
+        byte[] hash = new byte[32];
+        hash[0] = 7;
+        AuditLog chained = archivedEntry(entityId, adminId, null, "2002-03-20T08:00:00Z");
+        chained.setChainNo(999);
+        chained.setChainSeq(1L);
+        chained.setHash(hash);
+        auditLogRepository.insertBatch(
+                List.of(
+                        archivedEntry(entityId, adminId, correlationId, "2002-03-01T08:00:00Z"),
+                        archivedEntry(entityId, adminId, correlationId, "2002-03-10T08:00:00Z"),
+                        chained));
+        auditService.log("PAYMENT", entityId, AuditAction.PAYMENT_APPROVED, adminId, null, null);
+
+        Assertions.assertEquals(3, auditArchiveService.archive(month));
+        Assertions.assertNull(
+                jdbcTemplate.queryForObject(
+                        "SELECT to_regclass('audit_logs_p2002_03')::text", String.class));
+
+        // The segment keeps each entry's chain position and hash
+        AuditLog archived =
+                auditArchiveService
+                        .findByEntity("PAYMENT", entityId, PageRequest.of(0, 4))
+                        .getContent()
+                        .get(1);
+        Assertions.assertEquals(999, archived.getChainNo());
+        Assertions.assertEquals(1L, archived.getChainSeq());
+        Assertions.assertArrayEquals(hash, archived.getHash());
+
+        // The live entry comes first, then the archived month newest first
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/entity/PAYMENT/" + entityId)
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("page", "0")
+                                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4))
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].action").value("PAYMENT_APPROVED"))
+                .andExpect(
+                        jsonPath("$.content[1].createdAt")
+                                .value(org.hamcrest.Matchers.startsWith("2002-03-20")))
+                .andExpect(jsonPath("$.last").value(false));
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/entity/PAYMENT/" + entityId)
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("page", "1")
+                                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(
+                        jsonPath("$.content[1].createdAt")
+                                .value(org.hamcrest.Matchers.startsWith("2002-03-01")))
+                .andExpect(jsonPath("$.last").value(true));
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/correlation/" + correlationId)
+                                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Audit log — hash chains verify and report an edited entry")
+    void hashChainDetectsTampering() throws Exception {
+        String adminToken = getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        UUID entityId = UUID.randomUUID();
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            for (int i = 0; i < 3; i++) {
+                                auditService.log(
+                                        "PAYMENT",
+                                        entityId,
+                                        AuditAction.PAYMENT_FAILED,
+                                        adminId,
+                                        null,
+                                        new PaymentFailedDetails("attempt " + i));
+                            }
+                        });
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/verify")
+                                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.chains").value(16));
+
+        UUID editedId =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM audit_logs WHERE entity_id = ?"
+                                + " ORDER BY chain_seq LIMIT 1 OFFSET 1",
+                        UUID.class,
+                        entityId);
+        String original =
+                jdbcTemplate.queryForObject(
+                        "SELECT details::text FROM audit_logs WHERE id = ?",
+                        String.class,
+                        editedId);
+        jdbcTemplate.update(
+                "UPDATE audit_logs SET details = ?::jsonb WHERE id = ?",
+                "{\"reason\": \"attempt 9\"}",
+                editedId);
+        try {
+            mockMvc.perform(
+                            get("/api/v1/audit-logs/verify")
+                                    .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.valid").value(false))
+                    .andExpect(jsonPath("$.breaks.length()").value(1))
+                    .andExpect(jsonPath("$.breaks[0].auditLogId").value(editedId.toString()))
+                    .andExpect(jsonPath("$.breaks[0].reason").value("HASH_MISMATCH"));
+        } finally {
+            jdbcTemplate.update(
+                    "UPDATE audit_logs SET details = ?::jsonb WHERE id = ?", original, editedId);
+        }
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/verify")
+                                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true));
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Audit log — search matches fields inside details through the GIN index")
+    void searchByDetails() throws Exception {
+        String adminToken = getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        String sourceIban = "TR" + (100000000000000000L + System.nanoTime() % 1000000000L);
+        UUID entityId = UUID.randomUUID();
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            auditService.log(
+                                    "PAYMENT",
+                                    entityId,
+                                    AuditAction.PAYMENT_CREATED,
+                                    adminId,
+                                    null,
+                                    new PaymentCreatedDetails(
+                                            new BigDecimal("4321.50"), sourceIban, TARGET_IBAN));
+                            auditService.log(
+                                    "PAYMENT",
+                                    entityId,
+                                    AuditAction.PAYMENT_FAILED,
+                                    adminId,
+                                    null,
+                                    new PaymentFailedDetails("limit for " + sourceIban));
+                        });
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("details.sourceIban", sourceIban))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].action").value("PAYMENT_CREATED"));
+
+        // Numbers match the stored number, whatever its scale
+        mockMvc.perform(
+                        get("/api/v1/audit-logs")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("details.sourceIban", sourceIban)
+                                .param("details.amount", "4321.5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("details.reason", "limit for " + sourceIban))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].action").value("PAYMENT_FAILED"));
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("details.source-iban", sourceIban))
+                .andExpect(status().isUnprocessableContent());
+
+        String plan =
+                new TransactionTemplate(transactionManager)
+                        .execute(
+                                status -> {
+                                    jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+                                    return String.join(
+                                            "\n",
+                                            jdbcTemplate.queryForList(
+                                                    "EXPLAIN SELECT id FROM audit_logs"
+                                                            + " WHERE details @> ?::jsonb",
+                                                    String.class,
+                                                    "{\"sourceIban\": \"" + sourceIban + "\"}"));
+                                });
+        Assertions.assertTrue(plan.contains("Bitmap Index Scan"), plan);
+        Assertions.assertTrue(plan.contains("Index Cond: (details @>"), plan);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Audit log — export streams every match as NDJSON or CSV")
+    void exportStreamsMatches() throws Exception {
+        String adminToken = getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        String correlationId = "test-export-" + System.nanoTime();
+        UUID entityId = UUID.randomUUID();
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            for (int i = 0; i < 3; i++) {
+                                auditService.log(
+                                        "PAYMENT",
+                                        entityId,
+                                        AuditAction.PAYMENT_FAILED,
+                                        adminId,
+                                        correlationId,
+                                        new PaymentFailedDetails("failed, \"attempt\" " + i));
+                            }
+                        });
+
+        MvcResult ndjson =
+                mockMvc.perform(
+                                get("/api/v1/audit-logs/export")
+                                        .header("Authorization", "Bearer " + adminToken)
+                                        .param("correlationId", correlationId))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+        String body =
+                mockMvc.perform(asyncDispatch(ndjson))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType("application/x-ndjson"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        List<String> lines = body.lines().toList();
+        Assertions.assertEquals(3, lines.size());
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            Assertions.assertEquals(correlationId, row.get("correlationId").asText());
+            Assertions.assertEquals(entityId.toString(), row.get("entityId").asText());
+        }
+
+        MvcResult csv =
+                mockMvc.perform(
+                                get("/api/v1/audit-logs/export")
+                                        .header("Authorization", "Bearer " + adminToken)
+                                        .param("correlationId", correlationId)
+                                        .param("format", "CSV"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+        List<String> rows =
+                mockMvc.perform(asyncDispatch(csv))
+                        .andExpect(status().isOk())
+                        .andExpect(
+                                header().string(
+                                                "Content-Disposition",
+                                                org.hamcrest.Matchers.containsString(
+                                                        "audit-logs.csv")))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString()
+                        .lines()
+                        .toList();
+        Assertions.assertEquals(4, rows.size());
+        Assertions.assertTrue(rows.get(0).startsWith("id,entity_type,entity_id,action"));
+        // Details hold commas and quotes, so the field is quoted with doubled quotes
+        Assertions.assertTrue(rows.get(1).contains("\"{\"\"reason\"\": \"\"failed, "), rows.get(1));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Audit log — retention gives up on a locked partition without blocking inserts")
+    void retentionGivesUpOnLockedPartition() throws Exception {
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        YearMonth month = YearMonth.of(2003, 1);
+        auditPartitionRepository.createPartition(month, LOCK_TIMEOUT_MS);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder =
+                    executor.submit(
+                            () ->
+                                    new TransactionTemplate(transactionManager)
+                                            .executeWithoutResult(
+                                                    status -> {
+                                                        jdbcTemplate.execute(
+                                                                "LOCK TABLE audit_logs_p2003_01"
+                                                                        + " IN ACCESS EXCLUSIVE"
+                                                                        + " MODE");
+                                                        locked.countDown();
+                                                        awaitQuietly(release);
+                                                    }));
+            Assertions.assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            // The detach times out instead of queueing, and audit writes carry on meanwhile
+            Assertions.assertEquals(
+                    List.of(), auditPartitionService.applyRetention(YearMonth.of(2003, 2)));
+            auditService.log(
+                    "PAYMENT", UUID.randomUUID(), AuditAction.PAYMENT_CREATED, adminId, null, null);
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(
+                List.of(month), auditPartitionService.applyRetention(YearMonth.of(2003, 2)));
+        Assertions.assertFalse(auditPartitionRepository.findPartitions().contains(month));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Audit log — chains continue from the anchor of an archived month")
+    void archivedChainLinksLeaveAnAnchor() throws Exception {
+        String adminToken = getAdminToken();
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        UUID entityId = UUID.randomUUID();
+        YearMonth month = YearMonth.of(2004, 1);
+        auditPartitionRepository.createPartition(month, LOCK_TIMEOUT_MS);
+
+        auditChainWriter.write(
+                new ArrayList<>(
+                        List.of(
+                                archivedEntry(entityId, adminId, null, "2004-01-05T08:00:00Z"),
+                                archivedEntry(entityId, adminId, null, "2004-01-06T08:00:00Z"),
+                                archivedEntry(entityId, adminId, null, "2004-01-07T08:00:00Z"))));
+
+        // Only the month's links are checked
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/verify")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .param("from", "2004-01-01T00:00:00Z")
+                                .param("to", "2004-02-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.linksChecked").value(3));
+
+        auditArchiveService.archive(month);
+        auditService.log("PAYMENT", entityId, AuditAction.PAYMENT_APPROVED, adminId, null, null);
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/verify")
+                                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true));
+
+        // Removing the first link after the anchor is reported, not taken as a new start
+        AuditLog live =
+                auditLogRepository
+                        .findByEntityTypeAndEntityId("PAYMENT", entityId, PageRequest.of(0, 1))
+                        .getContent()
+                        .get(0);
+        AuditLog removed =
+                auditChainRepository
+                        .findLinks(live.getChainNo(), live.getChainSeq(), live.getChainSeq())
+                        .get(0);
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE id = ?", removed.getId());
+        try {
+            mockMvc.perform(
+                            get("/api/v1/audit-logs/verify")
+                                    .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.valid").value(false))
+                    .andExpect(jsonPath("$.breaks[0].chainNo").value(live.getChainNo()))
+                    .andExpect(jsonPath("$.breaks[0].reason").value("MISSING_LINK"));
+        } finally {
+            auditLogRepository.insertBatch(List.of(removed));
+        }
+
+        mockMvc.perform(
+                        get("/api/v1/audit-logs/verify")
+                                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true));
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Audit log — segments archived by another node are found")
+    void segmentFromAnotherNodeIsFound() throws Exception {
+        UUID adminId = userRepository.findByUsername("auditadmin").orElseThrow().getId();
+        UUID entityId = UUID.randomUUID();
+
+        // Written straight into the shared directory, without telling this node's archive
+        try (AuditSegmentWriter writer =
+                new AuditSegmentWriter(auditArchive.directory(), YearMonth.of(2005, 6), 256, 2)) {
+            writer.append(archivedEntry(entityId, adminId, null, "2005-06-01T08:00:00Z"));
+            writer.finish();
+        }
+
+        Assertions.assertEquals(
+                1,
+                auditArchiveService
+                        .findByEntity("PAYMENT", entityId, PageRequest.of(0, 20))
+                        .getTotalElements());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AuditLog archivedEntry(
+            UUID entityId, UUID performedBy, String correlationId, String createdAt) {
+        return AuditLog.builder()
+                .entityType("PAYMENT")
+                .entityId(entityId)
+                .action(AuditAction.PAYMENT_CREATED)
+                .performedBy(performedBy)
+                .correlationId(correlationId)
+                .createdAt(Instant.parse(createdAt))
+                .build();
+    }
 }
@@ -110,6 +110,26 @@ class AuthIntegrationTest extends BaseIntegrationTest {
         mockMvc.perform(get("/api/v1/auth/me")).andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("Me — a tampered token is rejected after the genuine one was cached")
+    void me_tamperedTokenAfterCachedToken() throws Exception {
+        String token = helper.registerAndGetToken("metest2", "metest2@test.com", "MAKER");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.username").value("metest2"));
+        }
+
+        // Flip a signature character away from the final one, whose low bits are padding
+        int at = token.length() - 10;
+        char flipped = token.charAt(at) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, at) + flipped + token.substring(at + 1);
+
+        mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("Refresh — should return new tokens")
     void refresh_success() throws Exception {
@@ -153,6 +173,55 @@ class AuthIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.username").value("user1updated"));
     }
 
+    @Test
+    @DisplayName("Update Username — tokens issued before the change stop working")
+    void updateUsername_revokesOldTokens() throws Exception {
+        String body =
+                "{\"username\":\"user5\",\"email\":\"user5@test.com\","
+                        + "\"password\":\"Test1234!\",\"role\":\"MAKER\"}";
+
+        String registerResponse =
+                mockMvc.perform(
+                                post("/api/v1/auth/register")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(body))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String oldToken = objectMapper.readTree(registerResponse).get("accessToken").asText();
+        String oldRefresh = objectMapper.readTree(registerResponse).get("refreshToken").asText();
+
+        // Warm the principal cache with the old token
+        mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isOk());
+
+        String updateResponse =
+                mockMvc.perform(
+                                patch("/api/v1/auth/me/username")
+                                        .header("Authorization", "Bearer " + oldToken)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"newUsername\":\"user5updated\"}"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String newToken = objectMapper.readTree(updateResponse).get("accessToken").asText();
+
+        mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(
+                        post("/api/v1/auth/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(String.format("{\"refreshToken\":\"%s\"}", oldRefresh)))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_TOKEN"));
+
+        mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("user5updated"));
+    }
+
     @Test
     @DisplayName("Update Email — success")
     void updateEmail_success() throws Exception {
@@ -172,13 +241,24 @@ class AuthIntegrationTest extends BaseIntegrationTest {
     void updatePassword_success() throws Exception {
         String token = helper.registerAndGetToken("user3", "user3@test.com", "MAKER");
 
-        mockMvc.perform(
-                        put("/api/v1/auth/me/password")
-                                .header("Authorization", "Bearer " + token)
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .content(
-                                        "{\"currentPassword\":\"Test1234!\",\"newPassword\":\"NewPass123!\"}"))
-                .andExpect(status().isNoContent());
+        String updateResponse =
+                mockMvc.perform(
+                                put("/api/v1/auth/me/password")
+                                        .header("Authorization", "Bearer " + token)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(
+                                                "{\"currentPassword\":\"Test1234!\",\"newPassword\":\"NewPass123!\"}"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String newToken = objectMapper.readTree(updateResponse).get("accessToken").asText();
+
+        // Tokens issued before the change are revoked
+        mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/auth/me").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
 
         // Verify login with new password
         mockMvc.perform(
@@ -0,0 +1,136 @@
+package com.erenalyoruk.cashgrid.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.erenalyoruk.cashgrid.BaseIntegrationTest;
+import com.erenalyoruk.cashgrid.TestHelper;
+import com.erenalyoruk.cashgrid.common.concurrency.ConcurrencyLimiter;
+import com.erenalyoruk.cashgrid.common.concurrency.ConcurrencyLimits;
+import com.erenalyoruk.cashgrid.common.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(
+        properties = {
+            "app.concurrency-limit.write.initial-limit=1",
+            "app.concurrency-limit.write.min-limit=1",
+            "app.concurrency-limit.write.max-limit=1"
+        })
+class ConcurrencyLimitTest extends BaseIntegrationTest {
+
+    @Autowired private ConcurrencyLimits concurrencyLimits;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should shed writes with 503 while the write limit is in use")
+    void writeLimitReached_returns503() throws Exception {
+        String token =
+                new TestHelper(mockMvc, objectMapper)
+                        .registerAndGetToken("concmaker", "concmaker@test.com", "MAKER");
+
+        ConcurrencyLimiter writes = concurrencyLimits.forRequest("POST", "/api/v1/payments");
+        assertThat(writes.tryAcquire()).isTrue();
+        try {
+            mockMvc.perform(
+                            post("/api/v1/payments")
+                                    .header("Authorization", "Bearer " + token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"))
+                    .andExpect(jsonPath("$.errorCode").value("SERVICE_OVERLOADED"));
+
+            // Reads have their own limit
+            mockMvc.perform(get("/api/v1/accounts").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+
+            // So do batch imports and bulk decisions
+            mockMvc.perform(
+                            post("/api/v1/payments/batch")
+                                    .header("Authorization", "Bearer " + token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("[]"))
+                    .andExpect(
+                            result ->
+                                    assertThat(result.getResponse().getStatus())
+                                            .isNotEqualTo(503));
+        } finally {
+            writes.release(0, false);
+        }
+
+        assertThat(
+                        meterRegistry
+                                .get("concurrency.rejections")
+                                .tag("limiter", "write")
+                                .counter()
+                                .count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit once per latency window however many requests are slow")
+    void limit_shrinksOncePerWindow() throws Exception {
+        ConcurrencyLimitProperties.Limit config = new ConcurrencyLimitProperties.Limit();
+        config.setInitialLimit(16);
+        config.setMinLimit(1);
+        config.setMaxLimit(16);
+        config.setTargetLatencyMs(100);
+        config.setBackoffRatio(0.5);
+        ConcurrencyLimiter limiter =
+                new ConcurrencyLimiter("test", config, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < 8; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(500), i % 2 == 0);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        Thread.sleep(150);
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit on slow requests and grow it back on fast ones")
+    void limit_adaptsToLatency() {
+        ConcurrencyLimitProperties.Limit config = new ConcurrencyLimitProperties.Limit();
+        config.setInitialLimit(10);
+        config.setMinLimit(2);
+        config.setMaxLimit(20);
+        config.setTargetLatencyMs(100);
+        config.setBackoffRatio(0.5);
+        ConcurrencyLimiter limiter =
+                new ConcurrencyLimiter("test", config, new SimpleMeterRegistry());
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // Fast requests at full load grow the limit about one slot per round
+        for (int round = 0; round < 20; round++) {
+            int slots = limiter.getLimit();
+            for (int i = 0; i < slots; i++) {
+                assertThat(limiter.tryAcquire()).isTrue();
+            }
+            assertThat(limiter.tryAcquire()).isFalse();
+            for (int i = 0; i < slots; i++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+            }
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(5).isLessThanOrEqualTo(20);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
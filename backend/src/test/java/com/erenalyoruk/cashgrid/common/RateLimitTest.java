@@ -1,26 +1,51 @@
 package com.erenalyoruk.cashgrid.common;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.erenalyoruk.cashgrid.BaseIntegrationTest;
 import com.erenalyoruk.cashgrid.common.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 
 @TestPropertySource(
         properties = {
             "app.rate-limit.auth-capacity=3",
             "app.rate-limit.auth-refill-tokens=3",
-            "app.rate-limit.auth-refill-seconds=60"
+            "app.rate-limit.auth-refill-seconds=60",
+            "app.rate-limit.policies[0].name=accounts-read",
+            "app.rate-limit.policies[0].method=GET",
+            "app.rate-limit.policies[0].path=/api/v1/accounts/**",
+            "app.rate-limit.policies[0].capacity=2",
+            "app.rate-limit.policies[0].refill-tokens=2",
+            "app.rate-limit.policies[0].refill-seconds=60",
+            "app.rate-limit.policies[0].roles.CHECKER.capacity=4",
+            "app.rate-limit.policies[0].roles.CHECKER.refill-tokens=4",
+            "app.rate-limit.policies[0].roles.CHECKER.refill-seconds=60",
+            "app.rate-limit.policies[1].name=limits-read",
+            "app.rate-limit.policies[1].method=GET",
+            "app.rate-limit.policies[1].path=/api/v1/limits/**",
+            "app.rate-limit.policies[1].capacity=3",
+            "app.rate-limit.policies[1].refill-tokens=3",
+            "app.rate-limit.policies[1].refill-seconds=60",
+            "app.rate-limit.policies[1].mode=DISTRIBUTED",
+            "app.rate-limit.policies[1].lease-size=2"
         })
 class RateLimitTest extends BaseIntegrationTest {
 
     @Autowired private RateLimitProperties rateLimitProperties;
 
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
     @Test
     @DisplayName("Should return X-Rate-Limit-Remaining header")
     void rateLimitHeader_present() throws Exception {
@@ -63,6 +88,95 @@ class RateLimitTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.errorCode").value("RATE_LIMIT_EXCEEDED"));
     }
 
+    @Test
+    @DisplayName("Route policy should limit only its own method and path")
+    void routePolicy_limitsOnlyMatchingRoute() throws Exception {
+        String uniqueIp = "10.98.98." + System.nanoTime() % 255;
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/accounts").header("X-Forwarded-For", uniqueIp))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(get("/api/v1/accounts").header("X-Forwarded-For", uniqueIp))
+                .andExpect(status().isTooManyRequests());
+
+        // Other methods on the same path fall through to the default policy
+        mockMvc.perform(
+                        post("/api/v1/accounts")
+                                .header("X-Forwarded-For", uniqueIp)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{}"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(
+                        meterRegistry
+                                .get("ratelimit.buckets")
+                                .tag("policy", "accounts-read")
+                                .gauge()
+                                .value())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Role quota should follow the authenticated user across addresses")
+    void roleQuota_keyedByUserNotAddress() throws Exception {
+        String username = "rlchecker" + System.nanoTime() % 100000000;
+        String response =
+                mockMvc.perform(
+                                post("/api/v1/auth/register")
+                                        .header("X-Forwarded-For", "10.96.96.1")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(
+                                                String.format(
+                                                        "{\"username\":\"%s\",\"email\":"
+                                                                + "\"%s@test.com\",\"password\":"
+                                                                + "\"Test1234!\",\"role\":"
+                                                                + "\"CHECKER\"}",
+                                                        username,
+                                                        username)))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String token = objectMapper.readTree(response).get("accessToken").asText();
+
+        // A new address per call still draws from the same per-user bucket
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(
+                            get("/api/v1/accounts")
+                                    .header("Authorization", "Bearer " + token)
+                                    .header("X-Forwarded-For", "10.96.97." + i))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Rate-Limit-Limit", "4"));
+        }
+        mockMvc.perform(
+                        get("/api/v1/accounts")
+                                .header("Authorization", "Bearer " + token)
+                                .header("X-Forwarded-For", "10.96.97.9"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Distributed policy should keep its bucket in PostgreSQL")
+    void distributedPolicy_sharesBucketThroughDatabase() throws Exception {
+        String uniqueIp = "10.97.97." + System.nanoTime() % 255;
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/limits").header("X-Forwarded-For", uniqueIp))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(get("/api/v1/limits").header("X-Forwarded-For", uniqueIp))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // Two leases of two and one token, then an empty one
+        Double tokens =
+                jdbcTemplate.queryForObject(
+                        "SELECT MIN(tokens) FROM rate_limit_buckets WHERE policy = 'limits-read'",
+                        Double.class);
+        assertThat(tokens).isNotNull().isLessThan(1.0);
+    }
+
     @Test
     @DisplayName("Actuator endpoints should not be rate limited")
     void actuator_notRateLimited() throws Exception {
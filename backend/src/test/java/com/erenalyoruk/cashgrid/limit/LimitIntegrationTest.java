@@ -8,16 +8,27 @@ import com.erenalyoruk.cashgrid.TestHelper;
 import com.erenalyoruk.cashgrid.account.model.Account;
 import com.erenalyoruk.cashgrid.account.model.Currency;
 import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class LimitIntegrationTest extends BaseIntegrationTest {
 
+    private static final String VERSION_HEADER = "X-Limit-Snapshot-Version";
+
     @Autowired private AccountRepository accountRepository;
 
+    @Autowired private JdbcTemplate jdbcTemplate;
+
     private TestHelper helper;
 
     private static final String SOURCE_IBAN = "TR400006200000000000000001";
@@ -139,4 +150,126 @@ class LimitIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isUnprocessableContent())
                 .andExpect(jsonPath("$.errorCode").value("LIMIT_EXCEEDED_SINGLE"));
     }
+
+    @Test
+    @Order(4)
+    @DisplayName("Daily limit — counter blocks the overflow and rejection releases it")
+    void dailyLimit_reservedAndReleased() throws Exception {
+        ensureAccountsExist();
+
+        String makerToken;
+        try {
+            makerToken = helper.loginAndGetToken("limitmaker");
+        } catch (Throwable e) {
+            makerToken = helper.registerAndGetToken("limitmaker", "limitmaker@test.com", "MAKER");
+        }
+        String checkerToken;
+        try {
+            checkerToken = helper.loginAndGetToken("limitchecker");
+        } catch (Throwable e) {
+            checkerToken =
+                    helper.registerAndGetToken("limitchecker", "limitchecker@test.com", "CHECKER");
+        }
+
+        // GBP limit from Order(3): 100 single, 500 daily
+        String firstId = null;
+        for (int i = 0; i < 5; i++) {
+            String response =
+                    createGbpPayment(makerToken, "idem-limit-daily-" + i)
+                            .andExpect(status().isCreated())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+            if (firstId == null) {
+                firstId = objectMapper.readTree(response).get("id").asText();
+            }
+        }
+
+        createGbpPayment(makerToken, "idem-limit-daily-over")
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.errorCode").value("LIMIT_EXCEEDED_DAILY"));
+
+        mockMvc.perform(
+                        post("/api/v1/payments/" + firstId + "/reject")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"reason\":\"Free up the daily limit\"}"))
+                .andExpect(status().isOk());
+
+        createGbpPayment(makerToken, "idem-limit-daily-after-reject")
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Snapshot version — bumps on API updates and on changes made by other nodes")
+    void snapshotVersion_followsChanges() throws Exception {
+        String adminToken = getAdminToken();
+
+        MvcResult list =
+                mockMvc.perform(
+                                get("/api/v1/limits")
+                                        .header("Authorization", "Bearer " + adminToken))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists(VERSION_HEADER))
+                        .andReturn();
+        long before = Long.parseLong(list.getResponse().getHeader(VERSION_HEADER));
+        // The GBP limit from Order(3), rewritten with its current single amount
+        String limitId = null;
+        for (JsonNode limit : objectMapper.readTree(list.getResponse().getContentAsString())) {
+            if ("GBP".equals(limit.get("currency").asText())) {
+                limitId = limit.get("id").asText();
+            }
+        }
+        Assertions.assertNotNull(limitId);
+
+        String updated =
+                mockMvc.perform(
+                                put("/api/v1/limits/" + limitId)
+                                        .header("Authorization", "Bearer " + adminToken)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"maxSingleAmount\":100.00}"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(VERSION_HEADER);
+        long afterUpdate = Long.parseLong(updated);
+        Assertions.assertTrue(afterUpdate > before);
+
+        // Another node writing directly: only the LISTEN/NOTIFY path can pick this up
+        jdbcTemplate.update(
+                "UPDATE limits SET updated_at = now() WHERE id = ?", UUID.fromString(limitId));
+
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .untilAsserted(
+                        () -> {
+                            String version =
+                                    mockMvc.perform(
+                                                    get("/api/v1/limits")
+                                                            .header(
+                                                                    "Authorization",
+                                                                    "Bearer " + adminToken))
+                                            .andReturn()
+                                            .getResponse()
+                                            .getHeader(VERSION_HEADER);
+                            Assertions.assertTrue(Long.parseLong(version) > afterUpdate);
+                        });
+    }
+
+    private ResultActions createGbpPayment(String makerToken, String idempotencyKey)
+            throws Exception {
+        return mockMvc.perform(
+                post("/api/v1/payments")
+                        .header("Authorization", "Bearer " + makerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(
+                                String.format(
+                                        "{\"idempotencyKey\":\"%s\","
+                                                + "\"sourceIban\":\"%s\","
+                                                + "\"targetIban\":\"%s\","
+                                                + "\"amount\":100.00,"
+                                                + "\"currency\":\"GBP\"}",
+                                        idempotencyKey, SOURCE_IBAN, TARGET_IBAN)));
+    }
 }
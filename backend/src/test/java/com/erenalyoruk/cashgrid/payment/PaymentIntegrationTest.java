@@ -4,20 +4,42 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.erenalyoruk.cashgrid.BaseIntegrationTest;
+import com.erenalyoruk.cashgrid.StatementCounter;
 import com.erenalyoruk.cashgrid.TestHelper;
 import com.erenalyoruk.cashgrid.account.model.Account;
 import com.erenalyoruk.cashgrid.account.model.Currency;
 import com.erenalyoruk.cashgrid.account.repository.AccountRepository;
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.awaitility.Awaitility;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.ResultActions;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class PaymentIntegrationTest extends BaseIntegrationTest {
 
     @Autowired private AccountRepository accountRepository;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private DataSource dataSource;
+    @Autowired private JdbcTemplate jdbcTemplate;
 
     private TestHelper helper;
 
@@ -146,6 +168,8 @@ class PaymentIntegrationTest extends BaseIntegrationTest {
         JsonNode json2 = objectMapper.readTree(response2);
 
         Assertions.assertEquals(json1.get("id").asText(), json2.get("id").asText());
+        // Replay returns the stored creation response verbatim
+        Assertions.assertEquals(json1, json2);
     }
 
     @Test
@@ -173,7 +197,7 @@ class PaymentIntegrationTest extends BaseIntegrationTest {
 
     @Test
     @Order(4)
-    @DisplayName("Approve — CHECKER should approve and complete payment")
+    @DisplayName("Approve — CHECKER should approve and workers complete payment")
     void approvePayment_success() throws Exception {
         ensureAccountsExist();
         String makerToken = getMakerToken();
@@ -204,9 +228,23 @@ class PaymentIntegrationTest extends BaseIntegrationTest {
         mockMvc.perform(
                         post("/api/v1/payments/" + paymentId + "/approve")
                                 .header("Authorization", "Bearer " + checkerToken))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("APPROVED"))
                 .andExpect(jsonPath("$.approvedByUsername").value("paychecker"));
+
+        awaitStatus(paymentId, checkerToken, "COMPLETED");
+    }
+
+    private void awaitStatus(String paymentId, String token, String expected) {
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .untilAsserted(
+                        () ->
+                                mockMvc.perform(
+                                                get("/api/v1/payments/" + paymentId)
+                                                        .header("Authorization", "Bearer " + token))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.status").value(expected)));
     }
 
     @Test
@@ -299,4 +337,576 @@ class PaymentIntegrationTest extends BaseIntegrationTest {
                                                 + "\"amount\":100.00}"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @Order(9)
+    @DisplayName("Bulk approve — returns per-item results and queues approved payments")
+    void bulkApprove_perItemResults() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+
+        String first = createPayment(makerToken, "idem-bulk-approve-1-" + System.nanoTime());
+        String second = createPayment(makerToken, "idem-bulk-approve-2-" + System.nanoTime());
+        String missing = "00000000-0000-0000-0000-000000000002";
+
+        mockMvc.perform(
+                        post("/api/v1/payments/bulk-approve")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        String.format(
+                                                "{\"paymentIds\":[\"%s\",\"%s\",\"%s\"]}",
+                                                first, second, missing)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(first))
+                .andExpect(jsonPath("$.results[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$.results[2].errorCode").value("RESOURCE_NOT_FOUND"));
+
+        awaitStatus(first, checkerToken, "COMPLETED");
+        awaitStatus(second, checkerToken, "COMPLETED");
+
+        // Already approved — each item reports an invalid transition
+        mockMvc.perform(
+                        post("/api/v1/payments/bulk-approve")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(String.format("{\"paymentIds\":[\"%s\"]}", first)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].errorCode").value("INVALID_TRANSITION"));
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Bulk reject — CHECKER should reject all listed payments")
+    void bulkReject_success() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+
+        String first = createPayment(makerToken, "idem-bulk-reject-1-" + System.nanoTime());
+        String second = createPayment(makerToken, "idem-bulk-reject-2-" + System.nanoTime());
+
+        mockMvc.perform(
+                        post("/api/v1/payments/bulk-reject")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        String.format(
+                                                "{\"paymentIds\":[\"%s\",\"%s\"],"
+                                                        + "\"reason\":\"Cut-off\"}",
+                                                first, second)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Bulk approve — empty id list should return 400")
+    void bulkApprove_emptyList() throws Exception {
+        String checkerToken = getCheckerToken();
+
+        mockMvc.perform(
+                        post("/api/v1/payments/bulk-approve")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"paymentIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Batch create — returns per-item outcomes in request order")
+    void createBatch_perItemOutcomes() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+
+        String key = "idem-batch-" + System.nanoTime();
+        String item =
+                "{\"idempotencyKey\":\"%s\",\"sourceIban\":\"%s\","
+                        + "\"targetIban\":\"%s\",\"amount\":10.00,\"currency\":\"TRY\"}";
+        String body =
+                "["
+                        + String.format(item, key, SOURCE_IBAN, TARGET_IBAN)
+                        + ","
+                        + String.format(item, key, SOURCE_IBAN, TARGET_IBAN)
+                        + ","
+                        + String.format(item, key + "-x", SOURCE_IBAN, "TR250006200000000000000077")
+                        + ","
+                        + String.format(item, key + "-y", SOURCE_IBAN, "not-an-iban")
+                        + "]";
+
+        String response =
+                mockMvc.perform(
+                                post("/api/v1/payments/batch")
+                                        .header("Authorization", "Bearer " + makerToken)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(body))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.total").value(4))
+                        .andExpect(jsonPath("$.created").value(1))
+                        .andExpect(jsonPath("$.duplicates").value(1))
+                        .andExpect(jsonPath("$.failed").value(2))
+                        .andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+                        .andExpect(jsonPath("$.results[1].outcome").value("DUPLICATE"))
+                        .andExpect(jsonPath("$.results[2].errorCode").value("RESOURCE_NOT_FOUND"))
+                        .andExpect(jsonPath("$.results[3].errorCode").value("VALIDATION_ERROR"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        JsonNode results = objectMapper.readTree(response).get("results");
+        Assertions.assertEquals(
+                results.get(0).get("id").asText(), results.get(1).get("id").asText());
+
+        // Created payment is a regular PENDING payment
+        mockMvc.perform(
+                        get("/api/v1/payments/" + results.get(0).get("id").asText())
+                                .header("Authorization", "Bearer " + makerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.createdByUsername").value("paymaker"));
+
+        // Replaying the batch creates nothing new
+        mockMvc.perform(
+                        post("/api/v1/payments/batch")
+                                .header("Authorization", "Bearer " + makerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.duplicates").value(2));
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Batch create — a body that is not an array of objects should return 400")
+    void createBatch_notArray() throws Exception {
+        String makerToken = getMakerToken();
+
+        for (String body :
+                List.of(
+                        "{\"idempotencyKey\":\"idem-not-array\"}",
+                        "[{\"idempotencyKey\":\"idem-not-object\"}, 42]",
+                        "[]{\"idempotencyKey\":\"idem-trailing\"}",
+                        "[{\"idempotencyKey\":\"idem-truncated\"}")) {
+            mockMvc.perform(
+                            post("/api/v1/payments/batch")
+                                    .header("Authorization", "Bearer " + makerToken)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errorCode").value("INVALID_BATCH"));
+        }
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Ledger — completed payment posts a debit and a credit")
+    void completedPayment_postsLedgerEntries() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+
+        String paymentId = createPayment(makerToken, "idem-ledger-" + System.nanoTime());
+
+        mockMvc.perform(
+                        post("/api/v1/payments/" + paymentId + "/approve")
+                                .header("Authorization", "Bearer " + checkerToken))
+                .andExpect(status().isAccepted());
+        awaitStatus(paymentId, checkerToken, "COMPLETED");
+
+        String sourceId =
+                accountRepository.findByIban(SOURCE_IBAN).orElseThrow().getId().toString();
+        String targetId =
+                accountRepository.findByIban(TARGET_IBAN).orElseThrow().getId().toString();
+        String posting = "$.content[?(@.paymentId == '" + paymentId + "')].direction";
+
+        mockMvc.perform(
+                        get("/api/v1/accounts/" + sourceId + "/ledger")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(posting).value(Matchers.contains("DEBIT")));
+
+        mockMvc.perform(
+                        get("/api/v1/accounts/" + targetId + "/ledger")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(posting).value(Matchers.contains("CREDIT")));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Balance shards — transfer between hot accounts keeps totals consistent")
+    void shardedAccounts_transferAndConsolidate() throws Exception {
+        ensureAccountsExist();
+        String adminToken = getAdminToken();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+
+        String sourceId =
+                accountRepository.findByIban(SOURCE_IBAN).orElseThrow().getId().toString();
+        String targetId =
+                accountRepository.findByIban(TARGET_IBAN).orElseThrow().getId().toString();
+
+        setBalanceShards(adminToken, sourceId, 4)
+                .andExpect(jsonPath("$.balanceShards").value(4))
+                .andExpect(jsonPath("$.balance").value(1000000.00));
+        setBalanceShards(adminToken, targetId, 3)
+                .andExpect(jsonPath("$.balance").value(500000.00));
+
+        String paymentId = createPayment(makerToken, "idem-shards-" + System.nanoTime());
+        mockMvc.perform(
+                        post("/api/v1/payments/" + paymentId + "/approve")
+                                .header("Authorization", "Bearer " + checkerToken))
+                .andExpect(status().isAccepted());
+        awaitStatus(paymentId, checkerToken, "COMPLETED");
+
+        mockMvc.perform(
+                        get("/api/v1/accounts/" + sourceId)
+                                .header("Authorization", "Bearer " + checkerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(999900.00));
+
+        // Consolidating moves the shard balances back onto the account row
+        setBalanceShards(adminToken, sourceId, 0)
+                .andExpect(jsonPath("$.balanceShards").value(0))
+                .andExpect(jsonPath("$.balance").value(999900.00));
+        setBalanceShards(adminToken, targetId, 0)
+                .andExpect(jsonPath("$.balance").value(500100.00));
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Idempotency — concurrent retries with one key create a single payment")
+    void createPayment_concurrentRetries() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String key = "idem-race-" + System.nanoTime();
+
+        List<Callable<String>> retries = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            retries.add(() -> createPayment(makerToken, key));
+        }
+
+        Set<String> ids = new HashSet<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<String> id : executor.invokeAll(retries)) {
+                ids.add(id.get());
+            }
+        }
+
+        Assertions.assertEquals(1, ids.size());
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("List pending — cursor pages walk the queue without totals or overlap")
+    void listPending_cursorPagination() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+        for (int i = 0; i < 3; i++) {
+            createPayment(makerToken, "idem-cursor-" + i + "-" + System.nanoTime());
+        }
+
+        String firstPage =
+                mockMvc.perform(
+                                get("/api/v1/payments/pending")
+                                        .header("Authorization", "Bearer " + checkerToken)
+                                        .param("cursor", "")
+                                        .param("size", "2"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(2))
+                        .andExpect(jsonPath("$.totalElements").doesNotExist())
+                        .andExpect(jsonPath("$.last").value(false))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        JsonNode first = objectMapper.readTree(firstPage);
+
+        String secondPage =
+                mockMvc.perform(
+                                get("/api/v1/payments/pending")
+                                        .header("Authorization", "Bearer " + checkerToken)
+                                        .param("cursor", first.get("nextCursor").asText())
+                                        .param("size", "2"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        JsonNode second = objectMapper.readTree(secondPage);
+
+        Set<String> firstIds = new HashSet<>();
+        first.get("content").forEach(p -> firstIds.add(p.get("id").asText()));
+        second.get("content")
+                .forEach(p -> Assertions.assertFalse(firstIds.contains(p.get("id").asText())));
+        Assertions.assertTrue(second.get("content").size() > 0);
+
+        mockMvc.perform(
+                        get("/api/v1/payments/pending")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("List payments — withTotal=false skips totals but keeps a next cursor")
+    void listPayments_withoutTotal() throws Exception {
+        String checkerToken = getCheckerToken();
+
+        mockMvc.perform(
+                        get("/api/v1/payments")
+                                .header("Authorization", "Bearer " + checkerToken)
+                                .param("size", "1")
+                                .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").isString());
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("List payments — statement count does not grow with page size")
+    void listPayments_noNPlusOne() throws Exception {
+        String checkerToken = getCheckerToken();
+
+        int singleRow = countListStatements(checkerToken, 1);
+        int fullPage = countListStatements(checkerToken, 50);
+
+        // One page query and one count, whatever the number of rows mapped
+        Assertions.assertEquals(singleRow, fullPage);
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Metrics — lifecycle transitions are timed by transition and outcome")
+    void paymentTransitions_recordedAsMetrics() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+
+        double created = transitions("create", "PENDING");
+        double duplicates = transitions("create", "DUPLICATE");
+        double approved = transitions("approve", "APPROVED");
+        double completed = transitions("process", "COMPLETED");
+
+        String paymentId = createPayment(makerToken, "idem-metrics-001");
+        createPayment(makerToken, "idem-metrics-001");
+        mockMvc.perform(
+                        post("/api/v1/payments/" + paymentId + "/approve")
+                                .header("Authorization", "Bearer " + checkerToken))
+                .andExpect(status().isAccepted());
+        awaitStatus(paymentId, checkerToken, "COMPLETED");
+
+        Assertions.assertEquals(created + 1, transitions("create", "PENDING"));
+        Assertions.assertEquals(duplicates + 1, transitions("create", "DUPLICATE"));
+        Assertions.assertEquals(approved + 1, transitions("approve", "APPROVED"));
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(
+                        () ->
+                                Assertions.assertTrue(
+                                        transitions("process", "COMPLETED") >= completed + 1));
+        Assertions.assertNotNull(meterRegistry.find("account.lock.acquisition").timer());
+        Assertions.assertNotNull(meterRegistry.find("limit.check").timer());
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("Processing — a transfer blocked on a locked account fails once, not in a loop")
+    void lockedAccount_failsPaymentOnce() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+        double failed = transitions("process", "FAILED");
+
+        String paymentId = createPayment(makerToken, "idem-locked-" + System.nanoTime());
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock =
+                    connection.prepareStatement(
+                            "SELECT id FROM accounts WHERE iban = ? FOR UPDATE")) {
+                lock.setString(1, SOURCE_IBAN);
+                lock.executeQuery().close();
+            }
+
+            mockMvc.perform(
+                            post("/api/v1/payments/" + paymentId + "/approve")
+                                    .header("Authorization", "Bearer " + checkerToken))
+                    .andExpect(status().isAccepted());
+            awaitStatus(paymentId, checkerToken, "FAILED");
+            connection.rollback();
+        }
+
+        // Give the workers a few polls to pick the payment up again if it had been requeued
+        Thread.sleep(500);
+        awaitStatus(paymentId, checkerToken, "FAILED");
+        Assertions.assertEquals(
+                1,
+                jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM audit_logs "
+                                + "WHERE entity_id = ?::uuid AND action = 'PAYMENT_FAILED'",
+                        Integer.class,
+                        paymentId));
+        Assertions.assertEquals(failed + 1, transitions("process", "FAILED"));
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("Approve/reject — concurrent decisions on one payment apply exactly once")
+    void concurrentDecisions_applyOnce() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+        String paymentId = createPayment(makerToken, "idem-decide-" + System.nanoTime());
+
+        List<Callable<Integer>> decisions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            decisions.add(
+                    () ->
+                            mockMvc.perform(
+                                            post("/api/v1/payments/" + paymentId + "/approve")
+                                                    .header(
+                                                            "Authorization",
+                                                            "Bearer " + checkerToken))
+                                    .andReturn()
+                                    .getResponse()
+                                    .getStatus());
+            decisions.add(
+                    () ->
+                            mockMvc.perform(
+                                            post("/api/v1/payments/" + paymentId + "/reject")
+                                                    .header(
+                                                            "Authorization",
+                                                            "Bearer " + checkerToken)
+                                                    .contentType(MediaType.APPLICATION_JSON)
+                                                    .content("{\"reason\":\"Race\"}"))
+                                    .andReturn()
+                                    .getResponse()
+                                    .getStatus());
+        }
+
+        List<Integer> statuses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Integer> status : executor.invokeAll(decisions)) {
+                statuses.add(status.get());
+            }
+        }
+
+        Assertions.assertEquals(
+                1, statuses.stream().filter(s -> s < 300).count(), statuses::toString);
+        Assertions.assertEquals(
+                7, statuses.stream().filter(s -> s == 422).count(), statuses::toString);
+        Assertions.assertEquals(
+                1,
+                jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM audit_logs WHERE entity_id = ?::uuid "
+                                + "AND action IN ('PAYMENT_APPROVED', 'PAYMENT_REJECTED')",
+                        Integer.class,
+                        paymentId));
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Balance shards — a credit to a sharded account without shard rows uses the row")
+    void shardedAccountWithoutShardRows_creditsAccountRow() throws Exception {
+        ensureAccountsExist();
+        String makerToken = getMakerToken();
+        String checkerToken = getCheckerToken();
+
+        jdbcTemplate.update("UPDATE accounts SET balance_shards = 2 WHERE iban = ?", TARGET_IBAN);
+        try {
+            String paymentId = createPayment(makerToken, "idem-no-shards-" + System.nanoTime());
+            mockMvc.perform(
+                            post("/api/v1/payments/" + paymentId + "/approve")
+                                    .header("Authorization", "Bearer " + checkerToken))
+                    .andExpect(status().isAccepted());
+            awaitStatus(paymentId, checkerToken, "COMPLETED");
+
+            Assertions.assertEquals(
+                    0,
+                    new BigDecimal("500100.00")
+                            .compareTo(
+                                    accountRepository
+                                            .findByIban(TARGET_IBAN)
+                                            .orElseThrow()
+                                            .getBalance()));
+        } finally {
+            jdbcTemplate.update(
+                    "UPDATE accounts SET balance_shards = 0 WHERE iban = ?", TARGET_IBAN);
+        }
+    }
+
+    private double transitions(String transition, String outcome) {
+        Timer timer =
+                meterRegistry
+                        .find("payment.transition")
+                        .tags("transition", transition, "currency", "TRY", "outcome", outcome)
+                        .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private int countListStatements(String token, int size) throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(
+                        get("/api/v1/payments")
+                                .header("Authorization", "Bearer " + token)
+                                .param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andExpect(
+                        jsonPath("$.content.length()")
+                                .value(Matchers.greaterThanOrEqualTo(Math.min(size, 10))));
+        return StatementCounter.count();
+    }
+
+    private String getAdminToken() throws Exception {
+        try {
+            return helper.loginAndGetToken("payadmin");
+        } catch (Throwable e) {
+            return helper.registerAndGetToken("payadmin", "payadmin@test.com", "ADMIN");
+        }
+    }
+
+    private ResultActions setBalanceShards(String adminToken, String accountId, int shardCount)
+            throws Exception {
+        return mockMvc.perform(
+                        put("/api/v1/accounts/" + accountId + "/balance-shards")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"shardCount\":" + shardCount + "}"))
+                .andExpect(status().isOk());
+    }
+
+    private String createPayment(String makerToken, String idempotencyKey) throws Exception {
+        String response =
+                mockMvc.perform(
+                                post("/api/v1/payments")
+                                        .header("Authorization", "Bearer " + makerToken)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(
+                                                String.format(
+                                                        "{\"idempotencyKey\":\"%s\","
+                                                                + "\"sourceIban\":\"%s\","
+                                                                + "\"targetIban\":\"%s\","
+                                                                + "\"amount\":100.00,"
+                                                                + "\"currency\":\"TRY\"}",
+                                                        idempotencyKey, SOURCE_IBAN, TARGET_IBAN)))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        return objectMapper.readTree(response).get("id").asText();
+    }
 }
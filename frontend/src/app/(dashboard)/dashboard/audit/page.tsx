@@ -32,7 +32,10 @@ import { toast } from "sonner";
 import { Eye, ChevronLeft, ChevronRight, Save } from "lucide-react";
 
 export default function AuditPage() {
-  const [page, setPage] = useState(0);
+  // Cursors of the pages visited so far; the last one is the page on screen
+  const [cursors, setCursors] = useState<(string | undefined)[]>([undefined]);
+  const page = cursors.length - 1;
+  const resetPages = () => setCursors([undefined]);
   const size = 10;
 
   const [actionFilter, setActionFilter] = useState<string>("ALL");
@@ -58,7 +61,7 @@ export default function AuditPage() {
   const toISO = (s: string) => (s ? new Date(s).toISOString() : undefined);
 
   const { data, isLoading, isError } = useAuditLogs({
-    page,
+    cursor: cursors[page],
     size,
     action: actionFilter === "ALL" ? undefined : actionFilter,
     performedBy: performedByFilter || undefined,
@@ -96,7 +99,7 @@ export default function AuditPage() {
     setToFilter(p.to ?? "");
     setCorrelationFilter(p.correlationId ?? "");
     setEntityTypeFilter(p.entityType ?? "");
-    setPage(0);
+    resetPages();
     toast.success(`Applied preset: ${p.name}`);
   };
 
@@ -130,7 +133,7 @@ export default function AuditPage() {
                 value={actionFilter}
                 onValueChange={(v) => {
                   setActionFilter(v);
-                  setPage(0);
+                  resetPages();
                 }}
               >
                 <SelectTrigger>
@@ -164,7 +167,7 @@ export default function AuditPage() {
                 value={performedByFilter}
                 onChange={(e) => {
                   setPerformedByFilter(e.target.value);
-                  setPage(0);
+                  resetPages();
                 }}
               />
             </div>
@@ -178,7 +181,7 @@ export default function AuditPage() {
                 value={entityTypeFilter}
                 onChange={(e) => {
                   setEntityTypeFilter(e.target.value);
-                  setPage(0);
+                  resetPages();
                 }}
               />
             </div>
@@ -192,7 +195,7 @@ export default function AuditPage() {
                 value={correlationFilter}
                 onChange={(e) => {
                   setCorrelationFilter(e.target.value);
-                  setPage(0);
+                  resetPages();
                 }}
               />
             </div>
@@ -206,7 +209,7 @@ export default function AuditPage() {
                 value={fromFilter}
                 onChange={(e) => {
                   setFromFilter(e.target.value);
-                  setPage(0);
+                  resetPages();
                 }}
               />
             </div>
@@ -220,7 +223,7 @@ export default function AuditPage() {
                 value={toFilter}
                 onChange={(e) => {
                   setToFilter(e.target.value);
-                  setPage(0);
+                  resetPages();
                 }}
               />
             </div>
@@ -383,14 +386,14 @@ export default function AuditPage() {
 
           <div className="mt-4 flex items-center justify-between">
             <div className="text-muted-foreground text-sm">
-              Showing page {(data?.page ?? 0) + 1} of {data?.totalPages ?? 0} (
-              {data?.totalElements ?? 0} total)
+              Showing page {page + 1} (about{" "}
+              {(data?.estimatedTotal ?? 0).toLocaleString()} total)
             </div>
             <div className="flex items-center space-x-2">
               <Button
                 variant="outline"
                 size="sm"
-                onClick={() => setPage((p) => Math.max(0, p - 1))}
+                onClick={() => setCursors((c) => c.slice(0, -1))}
                 disabled={page <= 0 || isLoading}
               >
                 <ChevronLeft className="mr-1 h-4 w-4" /> Previous
@@ -398,10 +401,8 @@ export default function AuditPage() {
               <Button
                 variant="outline"
                 size="sm"
-                onClick={() => setPage((p) => p + 1)}
-                disabled={
-                  data ? page + 1 >= data.totalPages : true || isLoading
-                }
+                onClick={() => setCursors((c) => [...c, data?.nextCursor])}
+                disabled={!data?.nextCursor || isLoading}
               >
                 Next <ChevronRight className="ml-1 h-4 w-4" />
               </Button>
@@ -4,8 +4,9 @@ import type { AuditLogResponse, PageResponse } from "@/lib/types";
 const AUDIT_BASE = "/api/v1/audit-logs";
 
 export const auditApi = {
+  // Pages are walked by keyset: pass the previous page's nextCursor, or nothing for the first
   list: async (
-    page = 0,
+    cursor?: string,
     size = 10,
     action?: string,
     performedBy?: string,
@@ -14,7 +15,11 @@ export const auditApi = {
     correlationId?: string,
     entityType?: string,
   ): Promise<PageResponse<AuditLogResponse>> => {
-    const params: Record<string, string | number | undefined> = { page, size };
+    const params: Record<string, string | number | boolean | undefined> = {
+      size,
+      estimateTotal: true,
+    };
+    if (cursor) params.cursor = cursor;
     if (action) params.action = action;
     if (performedBy) params.performedBy = performedBy;
     if (from) params.from = from;
@@ -57,7 +57,13 @@ export const authApi = {
     return response.data;
   },
 
-  updatePassword: async (data: UpdatePasswordRequest): Promise<void> => {
-    await client.put(`${AUTH_BASE}/me/password`, data);
+  updatePassword: async (
+    data: UpdatePasswordRequest,
+  ): Promise<AuthResponse> => {
+    const response = await client.put<AuthResponse>(
+      `${AUTH_BASE}/me/password`,
+      data,
+    );
+    return response.data;
   },
 };
@@ -4,7 +4,7 @@ import { auditApi } from "@/lib/api";
 const AUDIT_KEY = ["audit-logs"];
 
 export function useAuditLogs(opts?: {
-  page?: number;
+  cursor?: string;
   size?: number;
   action?: string;
   performedBy?: string;
@@ -14,7 +14,7 @@ export function useAuditLogs(opts?: {
   entityType?: string;
 }) {
   const {
-    page = 0,
+    cursor,
     size = 10,
     action,
     performedBy,
@@ -27,7 +27,7 @@ export function useAuditLogs(opts?: {
   return useQuery({
     queryKey: [
       ...AUDIT_KEY,
-      page,
+      cursor ?? null,
       size,
       action ?? null,
       performedBy ?? null,
@@ -38,7 +38,7 @@ export function useAuditLogs(opts?: {
     ],
     queryFn: () =>
       auditApi.list(
-        page,
+        cursor,
         size,
         action,
         performedBy,
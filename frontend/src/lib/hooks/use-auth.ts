@@ -83,7 +83,17 @@ export function useUpdateEmail() {
 }
 
 export function useUpdatePassword() {
+  const setAuth = useAuthStore((s) => s.setAuth);
+
   return useMutation({
-    mutationFn: (data: UpdatePasswordRequest) => authApi.updatePassword(data),
+    mutationFn: async (data: UpdatePasswordRequest) => {
+      // The old tokens are revoked by the change
+      const tokens = await authApi.updatePassword(data);
+      const user = await fetchMe(tokens.accessToken);
+      return { tokens, user };
+    },
+    onSuccess: ({ tokens, user }) => {
+      setAuth(user, tokens.accessToken, tokens.refreshToken);
+    },
   });
 }
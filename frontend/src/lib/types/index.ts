@@ -143,6 +143,9 @@ export interface PageResponse<T> {
   totalPages: number;
   page: number;
   size: number;
+  last: boolean;
+  nextCursor?: string;
+  estimatedTotal?: number;
 }
 
 export interface ErrorResponse {